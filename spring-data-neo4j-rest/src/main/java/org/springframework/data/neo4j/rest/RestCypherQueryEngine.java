@@ -22,7 +22,6 @@ import org.springframework.data.neo4j.conversion.*;
 import org.springframework.data.neo4j.support.query.QueryEngine;
 
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -73,9 +72,14 @@ public class RestCypherQueryEngine implements QueryEngine<Map<String,Object>> {
             return result.iterator();
         }
 
+        @Override
+        public void close() {
+            result.close();
+        }
+
         public RestQueryResult(Map<?, ?> result, RestGraphDatabase restGraphDatabase, ResultConverter resultConverter) {
             final RestTableResultExtractor extractor = new RestTableResultExtractor(new RestEntityExtractor(restGraphDatabase));
-            final List<Map<String, Object>> data = extractor.extract(result);
+            final Iterable<Map<String, Object>> data = extractor.extract(result);
             this.result=new QueryResultBuilder<Map<String,Object>>(data, resultConverter);
         }
     }
@@ -90,6 +90,11 @@ public class RestGremlinQueryEngine implements QueryEngine<Object> {
             return result.iterator();
         }
 
+        @Override
+        public void close() {
+            result.close();
+        }
+
         public RestQueryResult(Object result, RestGraphDatabase restGraphDatabase, ResultConverter resultConverter) {
             this.restGraphDatabase = restGraphDatabase;
             final Iterable<T> convertedResult = convertRestResult(result);
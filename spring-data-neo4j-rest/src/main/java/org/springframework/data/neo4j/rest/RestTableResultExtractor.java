@@ -16,7 +16,8 @@
 
 package org.springframework.data.neo4j.rest;
 
-import java.util.ArrayList;
+import org.neo4j.helpers.collection.IterableWrapper;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,18 +34,22 @@ public class RestTableResultExtractor {
         this.restEntityExtractor = restEntityExtractor;
     }
 
-    public List<Map<String, Object>> extract(Map<?, ?> restResult) {
+    /**
+     * @return the rows of the result, each row is converted into a map when it is iterated
+     */
+    public Iterable<Map<String, Object>> extract(Map<?, ?> restResult) {
         List<String> columns = (List<String>) restResult.get("columns");
         return extractData(restResult, columns);
     }
 
-    private List<Map<String, Object>> extractData(Map<?, ?> restResult, List<String> columns) {
+    private Iterable<Map<String, Object>> extractData(Map<?, ?> restResult, final List<String> columns) {
         List<List<?>> rows = (List<List<?>>) restResult.get("data");
-        List<Map<String, Object>> result = new ArrayList<Map<String, Object>>(rows.size());
-        for (List<?> row : rows) {
-            result.add(mapRow(columns, row));
-        }
-        return result;
+        return new IterableWrapper<Map<String, Object>, List<?>>(rows) {
+            @Override
+            protected Map<String, Object> underlyingObjectToObject(List<?> row) {
+                return mapRow(columns, row);
+            }
+        };
     }
 
     private Map<String, Object> mapRow(List<String> columns, List<?> row) {
@@ -51,4 +51,15 @@ public @interface Query {
     String[] params() default {};
 
     QueryType type() default QueryType.Cypher;
+
+    /**
+     * @return query that counts the results of the query, used for the total of paged results, if not given
+     * it is derived from cypher queries or the results of the unpaged query are counted
+     */
+    String countQuery() default "";
+
+    /**
+     * @return milliseconds the totals of paged results are cached per parameter set, 0 disables caching
+     */
+    long countCacheMillis() default 0;
 }
@@ -61,4 +61,11 @@ public @interface RelatedTo {
      * @return target class, required for collection based fields (no generic inferring)
      */
     Class<? extends NodeBacked> elementClass() default NodeBacked.class;
+
+    /**
+     * @return true if the related entities are loaded completely on the first read and kept with the entity until the
+     * field is written through it, later reads don't access the graph (so they don't see changes made by others).
+     * Only supported for single and read-only (Iterable) fields, modifiable collections are rejected when mapped.
+     */
+    boolean fetch() default false;
 }
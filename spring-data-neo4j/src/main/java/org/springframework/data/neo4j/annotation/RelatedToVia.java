@@ -55,4 +55,10 @@ public @interface RelatedToVia {
      * @return target relationship entity class
      */
     Class<? extends RelationshipBacked> elementClass() default RelationshipBacked.class;
+
+    /**
+     * @return true if the relationship entities are loaded completely on the first read and kept with the entity,
+     * later reads don't access the graph (so they don't see changes made by others)
+     */
+    boolean fetch() default false;
 }
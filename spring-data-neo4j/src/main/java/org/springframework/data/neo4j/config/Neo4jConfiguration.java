@@ -108,6 +108,7 @@ public class Neo4jConfiguration {
         gdc.setConversionService(conversionService());
         gdc.setNodeTypeRepresentationStrategy(typeRepresentationStrategyFactory.getNodeTypeRepresentationStrategy());
         gdc.setRelationshipTypeRepresentationStrategy(typeRepresentationStrategyFactory.getRelationshipTypeRepresentationStrategy());
+        gdc.setMappingContext(mappingContext());
         if (validator!=null) {
             gdc.setValidator(validator);
         }
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.conversion;
+
+import java.util.List;
+
+/**
+ * Result converter that can convert several values at once, e.g. to look up information for all of them together.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public interface BatchResultConverter<T, R> extends ResultConverter<T, R> {
+    /**
+     * @return the converted values in the order of the given values
+     */
+    List<R> convertAll(List<T> values, Class<R> type);
+}
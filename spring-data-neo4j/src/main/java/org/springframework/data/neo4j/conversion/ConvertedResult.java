@@ -16,11 +16,27 @@
 
 package org.springframework.data.neo4j.conversion;
 
+import org.neo4j.helpers.collection.ClosableIterable;
+
+import java.util.List;
+
 /**
 * @author mh
 * @since 28.06.11
 */
-public interface ConvertedResult<R> extends Iterable<R> {
+public interface ConvertedResult<R> extends ClosableIterable<R> {
     R single();
     void handle(Handler<R> handler);
+
+    /**
+     * converts and hands over the results in lists of at most chunkSize elements, so that only one chunk is held
+     * in memory at a time
+     */
+    void handleChunks(int chunkSize, Handler<List<R>> handler);
+
+    /**
+     * @return this result converted in batches of batchSize values while it is iterated, keeping the order of the
+     * results, a {@link BatchResultConverter} can e.g. create the entities of a batch in parallel
+     */
+    ConvertedResult<R> inBatches(int batchSize);
 }
@@ -22,25 +22,130 @@ import org.neo4j.graphdb.Relationship;
 import org.springframework.data.neo4j.support.path.NodePath;
 import org.springframework.data.neo4j.support.path.RelationshipPath;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Converts single values or single value rows. The conversion for a combination of source and target type is
+ * determined once by {@link #createConversion(Class, Class)} and cached, so that converting further values of the same
+ * types only costs a map lookup.
+ *
  * @author mh
  * @since 28.06.11
  */
-public class DefaultConverter<T,R> implements ResultConverter<T,R> {
+public class DefaultConverter<T,R> implements BatchResultConverter<T,R> {
+
+    /**
+     * Converts values of one source type to one target type.
+     */
+    public interface Conversion {
+        Object convert(Object value);
+    }
+
+    private static final Conversion NO_CONVERSION = new Conversion() {
+        public Object convert(Object value) {
+            return null;
+        }
+    };
+    private static final Conversion IDENTITY = new Conversion() {
+        public Object convert(Object value) {
+            return value;
+        }
+    };
+    private static final Conversion END_NODE_OF_PATH = new Conversion() {
+        public Object convert(Object value) {
+            return ((Path) value).endNode();
+        }
+    };
+    private static final Conversion END_NODE_OF_RELATIONSHIP = new Conversion() {
+        public Object convert(Object value) {
+            return ((Relationship) value).getEndNode();
+        }
+    };
+    private static final Conversion LAST_RELATIONSHIP_OF_PATH = new Conversion() {
+        public Object convert(Object value) {
+            return ((Path) value).lastRelationship();
+        }
+    };
+    private static final Conversion FIRST_RELATIONSHIP_OF_NODE = new Conversion() {
+        public Object convert(Object value) {
+            return ((Node) value).getRelationships().iterator().next();
+        }
+    };
+    private static final Conversion NODE_PATH = new Conversion() {
+        public Object convert(Object value) {
+            return new NodePath((Node) value);
+        }
+    };
+    private static final Conversion RELATIONSHIP_PATH = new Conversion() {
+        public Object convert(Object value) {
+            return new RelationshipPath((Relationship) value);
+        }
+    };
+
+    // target type -> source type -> conversion
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Conversion>> conversions = new ConcurrentHashMap<Class<?>, ConcurrentMap<Class<?>, Conversion>>();
+    private final boolean overridesDoConvert = overridesDoConvert(getClass());
+
     public R convert(Object value, Class type) {
         if (value == null || type.isInstance(value)) return (R) value;
         Object singleValue = extractValue(value);
         if (singleValue == null || type.isInstance(singleValue)) return (R) singleValue;
         final Class<?> sourceType = singleValue.getClass();
-        Object result = doConvert(singleValue, sourceType, type);
+        Object result = overridesDoConvert ? doConvert(singleValue, sourceType, type) : conversionFor(sourceType, type).convert(singleValue);
         if (result == null)
             throw new RuntimeException("Cannot automatically convert " + sourceType + " to " + type + " please use a custom converter");
         return (R) result;
     }
 
+    public List<R> convertAll(List<T> values, Class<R> type) {
+        final List<R> result = new ArrayList<R>(values.size());
+        for (T value : values) {
+            result.add(convert(value, type));
+        }
+        return result;
+    }
+
+    private Conversion conversionFor(Class<?> sourceType, Class<?> type) {
+        ConcurrentMap<Class<?>, Conversion> bySourceType = conversions.get(type);
+        if (bySourceType == null) {
+            conversions.putIfAbsent(type, new ConcurrentHashMap<Class<?>, Conversion>());
+            bySourceType = conversions.get(type);
+        }
+        Conversion conversion = bySourceType.get(sourceType);
+        if (conversion == null) {
+            conversion = createConversion(sourceType, type);
+            if (conversion == null) conversion = NO_CONVERSION;
+            bySourceType.putIfAbsent(sourceType, conversion);
+        }
+        return conversion;
+    }
+
+    /**
+     * @deprecated override {@link #createConversion(Class, Class)} instead, subclasses overriding this method are still
+     * called for every value, without the cached conversions
+     */
+    @Deprecated
+    protected Object doConvert(Object value, Class<?> sourceType, Class type) {
+        return conversionFor(sourceType, type).convert(value);
+    }
+
+    private static boolean overridesDoConvert(Class<?> type) {
+        for (Class<?> current = type; current != DefaultConverter.class; current = current.getSuperclass()) {
+            try {
+                current.getDeclaredMethod("doConvert", Object.class, Class.class, Class.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not declared here, check the superclass
+            }
+        }
+        return false;
+    }
+
     protected Object extractValue(Object value) {
         if (value instanceof Map) return extractSingle(((Map)value).values());
         if (value instanceof Iterable) return extractSingle((Iterable)value);
@@ -55,39 +160,66 @@ public class DefaultConverter<T,R> implements ResultConverter<T,R> {
         return result;
     }
 
-    protected Object doConvert(Object value, Class<?> sourceType, Class type) {
+    /**
+     * called once per combination of source and target type, the returned conversion must only depend on these types
+     * @return the conversion or null if values of the source type can't be converted to the target type
+     */
+    protected Conversion createConversion(Class<?> sourceType, Class type) {
         if (Node.class.isAssignableFrom(type)) {
-            return toNode(value, sourceType);
+            return nodeConversion(sourceType);
         }
         if (Relationship.class.isAssignableFrom(type)) {
-            return toRelationship(value, sourceType);
+            return relationshipConversion(sourceType);
         }
         if (Path.class.isAssignableFrom(type)) {
-            return toPath(value, sourceType);
+            return pathConversion(sourceType);
         }
         if (type.isEnum()) {
-            return Enum.valueOf(type, value.toString());
+            return enumConversion(type);
         }
         return null;
     }
 
-    protected Path toPath(Object value, Class<?> sourceType) {
-        if (Node.class.isAssignableFrom(sourceType)) return new NodePath((Node) value);
-        if (Relationship.class.isAssignableFrom(sourceType)) return new RelationshipPath((Relationship) value);
+    private Conversion enumConversion(final Class type) {
+        return new Conversion() {
+            public Object convert(Object value) {
+                return Enum.valueOf(type, value.toString());
+            }
+        };
+    }
+
+    protected Conversion pathConversion(Class<?> sourceType) {
+        if (Node.class.isAssignableFrom(sourceType)) return NODE_PATH;
+        if (Relationship.class.isAssignableFrom(sourceType)) return RELATIONSHIP_PATH;
         return null;
     }
 
-    protected Relationship toRelationship(Object value, Class<?> sourceType) {
-        if (Relationship.class.isAssignableFrom(sourceType)) return ((Relationship) value);
-        if (Path.class.isAssignableFrom(sourceType)) return ((Path) value).lastRelationship();
-        if (Node.class.isAssignableFrom(sourceType)) return ((Node) value).getRelationships().iterator().next();
+    protected Conversion relationshipConversion(Class<?> sourceType) {
+        if (Relationship.class.isAssignableFrom(sourceType)) return IDENTITY;
+        if (Path.class.isAssignableFrom(sourceType)) return LAST_RELATIONSHIP_OF_PATH;
+        if (Node.class.isAssignableFrom(sourceType)) return FIRST_RELATIONSHIP_OF_NODE;
         return null;
     }
 
-    protected Node toNode(Object value, Class<?> sourceType) {
-        if (Node.class.isAssignableFrom(sourceType)) return (Node)value;
-        if (Path.class.isAssignableFrom(sourceType)) return ((Path) value).endNode();
-        if (Relationship.class.isAssignableFrom(sourceType)) return ((Relationship) value).getEndNode();
+    protected Conversion nodeConversion(Class<?> sourceType) {
+        if (Node.class.isAssignableFrom(sourceType)) return IDENTITY;
+        if (Path.class.isAssignableFrom(sourceType)) return END_NODE_OF_PATH;
+        if (Relationship.class.isAssignableFrom(sourceType)) return END_NODE_OF_RELATIONSHIP;
         return null;
     }
+
+    protected Path toPath(Object value, Class<?> sourceType) {
+        final Conversion conversion = pathConversion(sourceType);
+        return conversion == null ? null : (Path) conversion.convert(value);
+    }
+
+    protected Relationship toRelationship(Object value, Class<?> sourceType) {
+        final Conversion conversion = relationshipConversion(sourceType);
+        return conversion == null ? null : (Relationship) conversion.convert(value);
+    }
+
+    protected Node toNode(Object value, Class<?> sourceType) {
+        final Conversion conversion = nodeConversion(sourceType);
+        return conversion == null ? null : (Node) conversion.convert(value);
+    }
 }
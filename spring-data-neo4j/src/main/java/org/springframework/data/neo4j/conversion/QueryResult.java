@@ -16,11 +16,13 @@
 
 package org.springframework.data.neo4j.conversion;
 
+import org.neo4j.helpers.collection.ClosableIterable;
+
 /**
 * @author mh
 * @since 28.06.11
 */
-public interface QueryResult<T> extends Iterable<T> {
+public interface QueryResult<T> extends ClosableIterable<T> {
     <R> ConvertedResult<R> to(Class<R> type);
     <R> ConvertedResult<R> to(Class<R> type, ResultConverter<T, R> resultConverter);
     void handle(Handler<T> handler);
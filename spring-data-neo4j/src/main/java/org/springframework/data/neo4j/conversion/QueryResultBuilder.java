@@ -20,21 +20,30 @@ import org.neo4j.graphdb.index.IndexHits;
 import org.neo4j.helpers.collection.ClosableIterable;
 import org.neo4j.helpers.collection.IteratorWrapper;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
+ * Lazily converts the underlying result while it is iterated, closable results (e.g. index hits) are closed as soon
+ * as they are exhausted, after {@link #single()} and {@link #handle(Handler)} or when {@link #close()} is called.
+ *
  * @author mh
  * @since 28.06.11
  */
 public class QueryResultBuilder<T> implements QueryResult<T> {
+    // shared to keep the conversions it looked up
+    private static final ResultConverter DEFAULT_CONVERTER = new DefaultConverter();
     private Iterable<T> result;
     private final ResultConverter defaultConverter;
     private final boolean isClosableIterable;
     private boolean isClosed;
 
     public QueryResultBuilder(Iterable<T> result) {
-        this(result, new DefaultConverter());
+        this(result, DEFAULT_CONVERTER);
     }
 
     public QueryResultBuilder(Iterable<T> result, final ResultConverter<T,?> defaultConverter) {
@@ -43,12 +52,34 @@ public class QueryResultBuilder<T> implements QueryResult<T> {
         this.defaultConverter = defaultConverter;
     }
 
+    /**
+     * replaces the %name placeholders of the given params in a single pass, other placeholders are kept
+     */
     public static String replaceParams(String statement, Map<String, Object> params) {
-        if (params==null || params.isEmpty()) return statement;
-        for (Map.Entry<String, Object> param : params.entrySet()) {
-            statement = statement.replaceAll("%"+param.getKey()+"\\b",""+param.getValue());
+        if (params==null || params.isEmpty() || statement.indexOf('%') == -1) return statement;
+        final StringBuilder result = new StringBuilder(statement.length());
+        int pos = 0;
+        int start;
+        while ((start = statement.indexOf('%', pos)) != -1) {
+            int end = start + 1;
+            while (end < statement.length() && isNameChar(statement.charAt(end))) {
+                end++;
+            }
+            final String name = statement.substring(start + 1, end);
+            result.append(statement, pos, start);
+            if (params.containsKey(name)) {
+                result.append(params.get(name));
+            } else {
+                result.append(statement, start, end);
+            }
+            pos = end;
         }
-        return statement;
+        result.append(statement, pos, statement.length());
+        return result.toString();
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
     }
 
     @Override
@@ -84,17 +115,107 @@ public class QueryResultBuilder<T> implements QueryResult<T> {
                 }
             }
 
+            @Override
+            public void handleChunks(int chunkSize, Handler<List<R>> handler) {
+                if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be at least 1 but was " + chunkSize);
+                try {
+                    List<T> chunk = new ArrayList<T>(chunkSize);
+                    for (T value : result) {
+                        chunk.add(value);
+                        if (chunk.size() == chunkSize) {
+                            handler.handle(convertAll(chunk, type, resultConverter));
+                            chunk = new ArrayList<T>(chunkSize);
+                        }
+                    }
+                    if (!chunk.isEmpty()) handler.handle(convertAll(chunk, type, resultConverter));
+                } finally {
+                    closeIfNeeded();
+                }
+            }
+
+            @Override
+            public ConvertedResult<R> inBatches(final int batchSize) {
+                if (batchSize < 1) throw new IllegalArgumentException("Batch size must be at least 1 but was " + batchSize);
+                final ClosableIterable<R> converted = new ClosableIterable<R>() {
+                    public Iterator<R> iterator() {
+                        return new BatchConvertingIterator<T, R>(QueryResultBuilder.this.iterator(), batchSize, type, resultConverter);
+                    }
+
+                    public void close() {
+                        closeIfNeeded();
+                    }
+                };
+                return new QueryResultBuilder<R>(converted).to(type);
+            }
+
             @Override
             public Iterator<R> iterator() {
-                return new IteratorWrapper<R, T>(result.iterator()) {
+                return new IteratorWrapper<R, T>(QueryResultBuilder.this.iterator()) {
                     protected R underlyingObjectToObject(T value) {
                         return resultConverter.convert(value, type);
                     }
                 };
             }
+
+            @Override
+            public void close() {
+                closeIfNeeded();
+            }
         };
     }
 
+    private static <T, R> List<R> convertAll(List<T> values, Class<R> type, ResultConverter<T, R> resultConverter) {
+        if (resultConverter instanceof BatchResultConverter) {
+            return ((BatchResultConverter<T, R>) resultConverter).convertAll(values, type);
+        }
+        final List<R> result = new ArrayList<R>(values.size());
+        for (T value : values) {
+            result.add(resultConverter.convert(value, type));
+        }
+        return result;
+    }
+
+    /**
+     * Reads batchSize values of the underlying iterator and converts them together.
+     */
+    private static class BatchConvertingIterator<T, R> implements Iterator<R> {
+        private final Iterator<T> values;
+        private final int batchSize;
+        private final Class<R> type;
+        private final ResultConverter<T, R> resultConverter;
+        private Iterator<R> batch = Collections.<R>emptyList().iterator();
+
+        BatchConvertingIterator(Iterator<T> values, int batchSize, Class<R> type, ResultConverter<T, R> resultConverter) {
+            this.values = values;
+            this.batchSize = batchSize;
+            this.type = type;
+            this.resultConverter = resultConverter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (batch.hasNext()) return true;
+            if (!values.hasNext()) return false;
+            final List<T> next = new ArrayList<T>(batchSize);
+            while (next.size() < batchSize && values.hasNext()) {
+                next.add(values.next());
+            }
+            batch = convertAll(next, type, resultConverter).iterator();
+            return batch.hasNext();
+        }
+
+        @Override
+        public R next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return batch.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     @Override
     public void handle(Handler<T> handler) {
         try {
@@ -118,8 +239,36 @@ public class QueryResultBuilder<T> implements QueryResult<T> {
         }
     }
 
+    @Override
+    public void close() {
+        closeIfNeeded();
+    }
+
+    /**
+     * @return iterator over the underlying result that closes it when it is exhausted
+     */
     @Override
     public Iterator<T> iterator() {
-        return result.iterator();
+        final Iterator<T> it = result.iterator();
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                if (isClosed) return false;
+                if (it.hasNext()) return true;
+                closeIfNeeded();
+                return false;
+            }
+
+            @Override
+            public T next() {
+                if (isClosed) throw new NoSuchElementException("Result was already closed");
+                return it.next();
+            }
+
+            @Override
+            public void remove() {
+                it.remove();
+            }
+        };
     }
 }
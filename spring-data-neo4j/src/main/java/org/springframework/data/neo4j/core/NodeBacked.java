@@ -22,6 +22,8 @@ import org.neo4j.graphdb.traversal.TraversalDescription;
 import org.springframework.data.neo4j.support.node.Neo4jNodeBacking;
 import org.springframework.data.neo4j.support.query.CypherQueryExecutor;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -67,6 +69,26 @@ public interface NodeBacked extends GraphBacked<Node> {
      */
     <R extends RelationshipBacked, N extends NodeBacked> R relateTo(N target, Class<R> relationshipClass, String relationshipType);
 
+    /**
+     * Creates relationships of the given type to all targets, like {@link #relateTo(NodeBacked, String)} existing
+     * relationships are kept. The relationships of this node are only read once for all targets.
+     *
+     * @param targets           other entities
+     * @param relationshipType  type of relationships to be created
+     * @return the relationships to the targets, in the order of the targets
+     */
+    List<Relationship> relateToAll(Collection<? extends NodeBacked> targets, String relationshipType);
+
+    /**
+     * Like {@link #relateToAll(Collection, String)}, returning relationship entities of the given class.
+     *
+     * @param targets           other entities
+     * @param relationshipClass relationship entity class
+     * @param relationshipType  type of relationships to be created
+     * @return relationship entities of specified relationshipClass, in the order of the targets
+     */
+    <R extends RelationshipBacked> List<R> relateToAll(Collection<? extends NodeBacked> targets, Class<R> relationshipClass, String relationshipType);
+
 
     /**
      * Reify this entity as another node backed type. The same underlying node will be used for the new entity.
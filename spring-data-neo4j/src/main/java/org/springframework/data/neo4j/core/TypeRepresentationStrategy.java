@@ -48,6 +48,12 @@ public interface TypeRepresentationStrategy<S extends PropertyContainer, T exten
      */
     <U extends T> ClosableIterable<U> findAll(final Class<U> clazz);
 
+    /**
+     * @param clazz Type whose instances should be iterated over
+     * @return lazy Iterable over the backing states of all instances of the given type, without instantiating entities
+     */
+    ClosableIterable<S> findAllStates(final Class<? extends T> clazz);
+
     /**
      * @param entityClass
      * @return number of instances of this class contained in the graph
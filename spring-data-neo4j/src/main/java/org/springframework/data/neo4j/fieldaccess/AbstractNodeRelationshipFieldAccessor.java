@@ -49,6 +49,13 @@ public abstract class AbstractNodeRelationshipFieldAccessor<ENTITY extends Graph
         return true;
     }
 
+    /**
+     * @return true if the field should load all its related entities at once, see {@link org.springframework.data.neo4j.annotation.RelatedTo#fetch()}
+     */
+    protected boolean isFetch() {
+        return property != null && property.isRelationship() && property.getRelationshipInfo().isFetch();
+    }
+
     protected STATE checkUnderlyingNode(ENTITY entity) {
         if (entity==null) throw new IllegalStateException("Entity is null");
         STATE node = getState(entity);
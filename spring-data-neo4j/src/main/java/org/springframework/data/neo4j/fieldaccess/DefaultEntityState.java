@@ -22,6 +22,7 @@ import org.springframework.data.neo4j.core.EntityState;
 import org.springframework.data.neo4j.core.GraphBacked;
 import org.springframework.data.neo4j.mapping.Neo4JPersistentEntity;
 import org.springframework.data.neo4j.mapping.Neo4JPersistentProperty;
+import org.springframework.data.neo4j.mapping.RelationshipInfo;
 
 import java.lang.reflect.Field;
 import java.util.HashMap;
@@ -35,12 +36,12 @@ import java.util.Map;
 public abstract class DefaultEntityState<ENTITY extends GraphBacked<STATE>, STATE> implements EntityState<ENTITY,STATE> {
     protected final ENTITY entity;
     protected final Class<? extends ENTITY> type;
-    private final Map<Neo4JPersistentProperty, FieldAccessor<ENTITY>> fieldAccessors = new HashMap<Neo4JPersistentProperty, FieldAccessor<ENTITY>>();
-    private final Map<Neo4JPersistentProperty,List<FieldAccessListener<ENTITY,?>>> fieldAccessorListeners = new HashMap<Neo4JPersistentProperty, List<FieldAccessListener<ENTITY, ?>>>();
+    private final FieldAccessorTable<ENTITY> accessorTable;
     private STATE state;
     protected final static Log log= LogFactory.getLog(DefaultEntityState.class);
     private final FieldAccessorFactoryProviders<ENTITY> fieldAccessorFactoryProviders;
     private final Neo4JPersistentEntity<ENTITY> persistentEntity;
+    private Map<Neo4JPersistentProperty, Object> fetched;
 
     public DefaultEntityState(final STATE underlyingState, final ENTITY entity, final Class<? extends ENTITY> type, final DelegatingFieldAccessorFactory delegatingFieldAccessorFactory, Neo4JPersistentEntity<ENTITY> persistentEntity) {
         this.state = underlyingState;
@@ -49,10 +50,10 @@ public abstract class DefaultEntityState<ENTITY extends GraphBacked<STATE>, STAT
         this.persistentEntity = persistentEntity;
         if (delegatingFieldAccessorFactory!=null) {
             fieldAccessorFactoryProviders = delegatingFieldAccessorFactory.accessorFactoriesFor(persistentEntity);
-            this.fieldAccessors.putAll(fieldAccessorFactoryProviders.getFieldAccessors());
-            this.fieldAccessorListeners.putAll(fieldAccessorFactoryProviders.getFieldAccessListeners());
+            accessorTable = fieldAccessorFactoryProviders.getAccessorTable();
         } else {
             fieldAccessorFactoryProviders = null; // todo
+            accessorTable = null;
         }
     }
 
@@ -67,6 +68,7 @@ public abstract class DefaultEntityState<ENTITY extends GraphBacked<STATE>, STAT
     @Override
     public void setPersistentState(final STATE state) {
         this.state = state;
+        this.fetched = null;
     }
 
     @Override
@@ -85,17 +87,32 @@ public abstract class DefaultEntityState<ENTITY extends GraphBacked<STATE>, STAT
 
     @Override
     public boolean isWritable(Field field) {
-        final FieldAccessor<ENTITY> accessor = accessorFor(property(field));
+        final FieldAccessor<ENTITY> accessor = accessorFor(field);
         if (accessor == null) return true;
         return accessor.isWriteable(entity);
     }
 
     @Override
     public Object getValue(final Field field) {
-        final FieldAccessor<ENTITY> accessor = accessorFor(property(field));
+        final FieldAccessor<ENTITY> accessor = accessorFor(field);
         if (accessor == null) return null;
-        else return accessor.getValue(entity);
+        final Neo4JPersistentProperty property = property(field);
+        if (!isFetched(property)) return accessor.getValue(entity);
+        if (fetched == null) fetched = new HashMap<Neo4JPersistentProperty, Object>();
+        if (fetched.containsKey(property)) return fetched.get(property);
+        final Object value = accessor.getValue(entity);
+        fetched.put(property, value);
+        return value;
     }
+
+    /**
+     * values of fetched relationship fields are kept until the field is written, fetching is only allowed for fields
+     * that aren't changed in place (see {@link RelationshipInfo})
+     */
+    private boolean isFetched(final Neo4JPersistentProperty property) {
+        return property != null && property.isRelationship() && property.getRelationshipInfo().isFetch();
+    }
+
     @Override
     public Object setValue(final Field field, final Object newVal) {
         return setValue(property(field),newVal);
@@ -104,6 +121,7 @@ public abstract class DefaultEntityState<ENTITY extends GraphBacked<STATE>, STAT
     @Override
     public Object setValue(final Neo4JPersistentProperty property, final Object newVal) {
         final FieldAccessor<ENTITY> accessor = accessorFor(property);
+        if (fetched != null) fetched.remove(property);
         final Object result=accessor!=null ? accessor.setValue(entity, newVal) : newVal;
         notifyListeners(property, result);
         return result;
@@ -112,22 +130,38 @@ public abstract class DefaultEntityState<ENTITY extends GraphBacked<STATE>, STAT
 
 	@Override
 	public Object getDefaultImplementation(Field field) {
-        final FieldAccessor<ENTITY> accessor = accessorFor(property(field));
+        final FieldAccessor<ENTITY> accessor = accessorFor(field);
         if (accessor == null) return null;
         else return accessor.getDefaultImplementation();
 	}
 
     protected Neo4JPersistentProperty property(Field field) {
+        if (accessorTable != null) {
+            final int ordinal = accessorTable.ordinal(field);
+            if (ordinal != -1) return accessorTable.property(ordinal);
+        }
         return persistentEntity.getPersistentProperty(field.getName());
     }
 
+    protected FieldAccessor<ENTITY> accessorFor(final Field field) {
+        if (accessorTable == null) return null;
+        final int ordinal = accessorTable.ordinal(field);
+        return ordinal == -1 ? null : accessorTable.accessor(ordinal);
+    }
+
     protected FieldAccessor<ENTITY> accessorFor(final Neo4JPersistentProperty property) {
-        return fieldAccessors.get(property);
+        if (accessorTable == null || property == null) return null;
+        final int ordinal = accessorTable.ordinal(property);
+        return ordinal == -1 ? null : accessorTable.accessor(ordinal);
     }
 
     private void notifyListeners(final Neo4JPersistentProperty field, final Object result) {
-        if (!fieldAccessorListeners.containsKey(field) || fieldAccessorListeners.get(field) == null) return;
-        for (final FieldAccessListener<ENTITY, ?> listener : fieldAccessorListeners.get(field)) {
+        if (accessorTable == null || field == null) return;
+        final int ordinal = accessorTable.ordinal(field);
+        if (ordinal == -1) return;
+        final List<FieldAccessListener<ENTITY, ?>> listeners = accessorTable.listeners(ordinal);
+        if (listeners == null) return;
+        for (final FieldAccessListener<ENTITY, ?> listener : listeners) {
             listener.valueChanged(entity, null, result); // todo oldValue
         }
     }
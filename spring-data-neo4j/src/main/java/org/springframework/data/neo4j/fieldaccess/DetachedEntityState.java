@@ -31,6 +31,7 @@ import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 
 import static org.springframework.data.neo4j.support.DoReturn.unwrap;
@@ -107,7 +108,8 @@ public class DetachedEntityState<ENTITY extends GraphBacked<STATE>, STATE> imple
     }
 
     protected boolean isDetached() {
-        return !transactionIsRunning() || !hasPersistentState() || isDirty();
+        // cheap in-memory checks first, the transaction status is only looked up for attached, clean entities
+        return !hasPersistentState() || isDirty() || !transactionIsRunning();
     }
 
     protected boolean transactionIsRunning() {
@@ -148,7 +150,7 @@ public class DetachedEntityState<ENTITY extends GraphBacked<STATE>, STATE> imple
             if (!isDirty(field) && isWritable(field)) {
                 Object existingValue;
                 if (hasPersistentState()) {
-                    addDirty(field, unwrap(delegate.getValue(field)), true);
+                    addDirty(field, snapshot(unwrap(delegate.getValue(field))), true);
                 }
                 else {
                     // existingValue = getValueFromEntity(field);
@@ -245,6 +247,12 @@ public class DetachedEntityState<ENTITY extends GraphBacked<STATE>, STATE> imple
         }
     }
 
+    // lazy related node sets read the graph, the previous value must not change with it
+    private Object snapshot(Object value) {
+        if (value instanceof ManagedRelatedNodesSet) return new HashSet<Object>((Collection<?>) value);
+        return value;
+    }
+
     private boolean isDirty() {
         return !this.dirty.isEmpty();
     }
@@ -65,31 +65,47 @@ public class FieldAccessorFactoryProviders<T> {
     private final List<FieldAccessorFactoryProvider<T>> fieldAccessorFactoryProviders = new ArrayList<FieldAccessorFactoryProvider<T>>();
     private final IdFieldAccessorFactory idFieldAccessorFactory;
     private Neo4JPersistentProperty idProperty;
+    private volatile FieldAccessorTable<T> accessorTable;
 
     FieldAccessorFactoryProviders(TypeInformation<?> type) {
         this.type = type;
         idFieldAccessorFactory = new IdFieldAccessorFactory();
     }
 
+    /**
+     * @return the accessor table of this type, created on first access and shared afterwards
+     */
+    public FieldAccessorTable<T> getAccessorTable() {
+        FieldAccessorTable<T> result = accessorTable;
+        if (result != null) return result;
+        synchronized (this) {
+            if (accessorTable == null) {
+                accessorTable = new FieldAccessorTable<T>(fieldAccessorFactoryProviders);
+            }
+            return accessorTable;
+        }
+    }
+
     public Map<Neo4JPersistentProperty, FieldAccessor<T>> getFieldAccessors() {
-        final Map<Neo4JPersistentProperty, FieldAccessor<T>> result = new HashMap<Neo4JPersistentProperty, FieldAccessor<T>>(fieldAccessorFactoryProviders.size(),1);
-        for (final FieldAccessorFactoryProvider<T> fieldAccessorFactoryProvider : fieldAccessorFactoryProviders) {
-            final FieldAccessor<T> accessor = fieldAccessorFactoryProvider.accessor();
-            result.put(fieldAccessorFactoryProvider.getProperty(), accessor);
+        final FieldAccessorTable<T> table = getAccessorTable();
+        final Map<Neo4JPersistentProperty, FieldAccessor<T>> result = new HashMap<Neo4JPersistentProperty, FieldAccessor<T>>(table.size(),1);
+        for (int ordinal = 0; ordinal < table.size(); ordinal++) {
+            result.put(table.property(ordinal), table.accessor(ordinal));
         }
         return result;
     }
 
     public Map<Neo4JPersistentProperty, List<FieldAccessListener<T,?>>> getFieldAccessListeners() {
-        final Map<Neo4JPersistentProperty, List<FieldAccessListener<T,?>>> result = new HashMap<Neo4JPersistentProperty, List<FieldAccessListener<T,?>>>(fieldAccessorFactoryProviders.size(),1);
-        for (final FieldAccessorFactoryProvider<T> fieldAccessorFactoryProvider : fieldAccessorFactoryProviders) {
-            final List<FieldAccessListener<T,?>> listeners = (List<FieldAccessListener<T,?>>) fieldAccessorFactoryProvider.listeners();
-            result.put(fieldAccessorFactoryProvider.getProperty(), listeners);
+        final FieldAccessorTable<T> table = getAccessorTable();
+        final Map<Neo4JPersistentProperty, List<FieldAccessListener<T,?>>> result = new HashMap<Neo4JPersistentProperty, List<FieldAccessListener<T,?>>>(table.size(),1);
+        for (int ordinal = 0; ordinal < table.size(); ordinal++) {
+            result.put(table.property(ordinal), table.listeners(ordinal));
         }
         return result;
     }
 
     public void add(Neo4JPersistentProperty property, FieldAccessorFactory<?> fieldAccessorFactory, List<FieldAccessorListenerFactory> listenerFactories) {
+        if (accessorTable != null) throw new IllegalStateException("Accessor table for " + type + " was already created");
         fieldAccessorFactoryProviders.add(new FieldAccessorFactoryProvider(property, fieldAccessorFactory, listenerFactories));
         if (property.isIdProperty()) this.idProperty = property;
     }
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.fieldaccess;
+
+import org.springframework.data.neo4j.mapping.Neo4JPersistentProperty;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable table of the field accessors and listeners of one entity type, shared by all entity states of that type.
+ * Each persistent property gets an ordinal (its position in the table), accessors and listeners are looked up by
+ * that ordinal.
+ *
+ * @author Michael Hunger
+ * @since 17.10.11
+ */
+public class FieldAccessorTable<T> {
+    private final Neo4JPersistentProperty[] properties;
+    private final FieldAccessor<T>[] accessors;
+    private final List<FieldAccessListener<T, ?>>[] listeners;
+    private final Map<String, Integer> ordinalsByFieldName;
+    private final Map<Neo4JPersistentProperty, Integer> ordinalsByProperty;
+
+    @SuppressWarnings("unchecked")
+    FieldAccessorTable(List<FieldAccessorFactoryProviders.FieldAccessorFactoryProvider<T>> providers) {
+        final int size = providers.size();
+        properties = new Neo4JPersistentProperty[size];
+        accessors = new FieldAccessor[size];
+        listeners = new List[size];
+        ordinalsByFieldName = new HashMap<String, Integer>(size * 2);
+        ordinalsByProperty = new HashMap<Neo4JPersistentProperty, Integer>(size * 2);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            final FieldAccessorFactoryProviders.FieldAccessorFactoryProvider<T> provider = providers.get(ordinal);
+            final Neo4JPersistentProperty property = provider.getProperty();
+            properties[ordinal] = property;
+            accessors[ordinal] = provider.accessor();
+            final List<FieldAccessListener<T, ?>> propertyListeners = provider.listeners();
+            listeners[ordinal] = propertyListeners == null || propertyListeners.isEmpty() ? null : propertyListeners;
+            ordinalsByFieldName.put(property.getName(), ordinal);
+            ordinalsByProperty.put(property, ordinal);
+        }
+    }
+
+    public int size() {
+        return properties.length;
+    }
+
+    /**
+     * @return the ordinal of the property backed by the field, or -1 if the field is not persistent
+     */
+    public int ordinal(Field field) {
+        final Integer ordinal = ordinalsByFieldName.get(field.getName());
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * @return the ordinal of the property, or -1 if the property doesn't belong to this type
+     */
+    public int ordinal(Neo4JPersistentProperty property) {
+        final Integer ordinal = ordinalsByProperty.get(property);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public Neo4JPersistentProperty property(int ordinal) {
+        return properties[ordinal];
+    }
+
+    public FieldAccessor<T> accessor(int ordinal) {
+        return accessors[ordinal];
+    }
+
+    /**
+     * @return the listeners of the property or null if there are none
+     */
+    public List<FieldAccessListener<T, ?>> listeners(int ordinal) {
+        return listeners[ordinal];
+    }
+}
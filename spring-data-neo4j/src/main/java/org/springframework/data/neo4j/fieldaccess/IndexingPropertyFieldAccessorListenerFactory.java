@@ -25,9 +25,12 @@ import org.springframework.data.neo4j.annotation.Indexed;
 import org.springframework.data.neo4j.core.GraphBacked;
 import org.springframework.data.neo4j.mapping.Neo4JPersistentProperty;
 import org.springframework.data.neo4j.support.GraphDatabaseContext;
+import org.springframework.data.neo4j.support.IndexChangeBuffer;
 
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 public class IndexingPropertyFieldAccessorListenerFactory<S extends PropertyContainer, T extends GraphBacked<S>> implements FieldAccessorListenerFactory<T> {
@@ -60,6 +63,7 @@ public class IndexingPropertyFieldAccessorListenerFactory<S extends PropertyCont
 
     public static class IndexProvider<S extends PropertyContainer, T extends GraphBacked<S>> {
         private final GraphDatabaseContext graphDatabaseContext;
+        private final ConcurrentMap<IndexNameKey, IndexName> indexNames = new ConcurrentHashMap<IndexNameKey, IndexName>();
 
         public IndexProvider(GraphDatabaseContext graphDatabaseContext) {
             this.graphDatabaseContext = graphDatabaseContext;
@@ -75,18 +79,75 @@ public class IndexingPropertyFieldAccessorListenerFactory<S extends PropertyCont
             return element.getAnnotation(Indexed.class);
         }
 
+        private IndexChangeBuffer getIndexChangeBuffer() {
+            return graphDatabaseContext.getIndexChangeBuffer();
+        }
+
+        /**
+         * looks up the index without writing buffered index changes, the index name is resolved once per property
+         * and entity class
+         */
         private Index<S> getIndex(Neo4JPersistentProperty property, GraphBacked instance) {
+            final IndexName indexName = getIndexName(property, instance.getClass());
+            return graphDatabaseContext.lookupIndex(indexName.type, indexName.name, indexName.fullText);
+        }
+
+        private IndexName getIndexName(Neo4JPersistentProperty property, Class<?> instanceType) {
+            final IndexNameKey key = new IndexNameKey(property, instanceType);
+            IndexName indexName = indexNames.get(key);
+            if (indexName != null) return indexName;
+            indexName = resolveIndexName(property, instanceType);
+            final IndexName existing = indexNames.putIfAbsent(key, indexName);
+            return existing != null ? existing : indexName;
+        }
+
+        private IndexName resolveIndexName(Neo4JPersistentProperty property, Class<?> instanceType) {
             final Indexed indexedAnnotation = property.getAnnotation(Indexed.class);
             final Class<T> type = (Class<T>) property.getOwner().getType();
             final String providedIndexName = indexedAnnotation.indexName().isEmpty() ? null : indexedAnnotation.indexName();
-            String indexName = Indexed.Name.get(indexedAnnotation.level(), type, providedIndexName, instance.getClass());
+            String indexName = Indexed.Name.get(indexedAnnotation.level(), type, providedIndexName, instanceType);
             if (!property.getIndexInfo().isFulltext()) {
-                return graphDatabaseContext.getIndex(type, indexName, false);
+                return new IndexName(type, indexName, false);
             }
             if (providedIndexName == null) throw new IllegalStateException("@Indexed(fullext=true) on "+property+" requires an providedIndexName too ");
-            String defaultIndexName = Indexed.Name.get(indexedAnnotation.level(), type, null, instance.getClass());
+            String defaultIndexName = Indexed.Name.get(indexedAnnotation.level(), type, null, instanceType);
             if (providedIndexName.equals(defaultIndexName)) throw new IllegalStateException("Full-index name for "+property+" must differ from the default name: "+defaultIndexName);
-            return graphDatabaseContext.getIndex(type, indexName, true);
+            return new IndexName(type, indexName, true);
+        }
+
+        private static class IndexName {
+            private final Class type;
+            private final String name;
+            private final boolean fullText;
+
+            IndexName(Class type, String name, boolean fullText) {
+                this.type = type;
+                this.name = name;
+                this.fullText = fullText;
+            }
+        }
+
+        private static class IndexNameKey {
+            private final Neo4JPersistentProperty property;
+            private final Class<?> instanceType;
+
+            IndexNameKey(Neo4JPersistentProperty property, Class<?> instanceType) {
+                this.property = property;
+                this.instanceType = instanceType;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (this == o) return true;
+                if (!(o instanceof IndexNameKey)) return false;
+                final IndexNameKey other = (IndexNameKey) o;
+                return property.equals(other.property) && instanceType.equals(other.instanceType);
+            }
+
+            @Override
+            public int hashCode() {
+                return 31 * property.hashCode() + instanceType.hashCode();
+            }
         }
     }
 
@@ -115,11 +176,7 @@ public class IndexingPropertyFieldAccessorListenerFactory<S extends PropertyCont
 
             final T state = graphBacked.getPersistentState();
             //index.remove(state, indexKey);
-            if (newVal == null) {
-                index.remove(state, indexKey);
-            } else {
-                index.add(state, indexKey, newVal);
-            }
+            indexProvider.getIndexChangeBuffer().update(index, state, indexKey, newVal);
         }
     }
 }
@@ -0,0 +1,211 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.fieldaccess;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.springframework.data.neo4j.core.NodeBacked;
+
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Set of the nodes related to a node entity, the target entities are only created while iterating. Within a transaction
+ * single adds and removes create or delete single relationships. Outside of a transaction (or for targets without a
+ * node) the set falls back to a {@link ManagedFieldAccessorSet} over a copy of its content, so that the changes are
+ * written when the entity is persisted.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public class ManagedRelatedNodesSet<ENTITY extends NodeBacked, TARGET extends NodeBacked> extends AbstractSet<TARGET> {
+    private final ENTITY entity;
+    private final Node node;
+    private final NodeToNodesRelationshipFieldAccessor<ENTITY, TARGET> accessor;
+    private int size = -1;
+    private Set<TARGET> detached;
+
+    public ManagedRelatedNodesSet(ENTITY entity, Node node, NodeToNodesRelationshipFieldAccessor<ENTITY, TARGET> accessor) {
+        this.entity = entity;
+        this.node = node;
+        this.accessor = accessor;
+    }
+
+    boolean isBackedBy(Node node) {
+        return detached == null && this.node.equals(node);
+    }
+
+    @Override
+    public Iterator<TARGET> iterator() {
+        if (detached != null) return detached.iterator();
+        final Iterator<Node> nodes = relatedNodes();
+        return new Iterator<TARGET>() {
+            private Node current;
+
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            public TARGET next() {
+                current = nodes.next();
+                return createEntity(current);
+            }
+
+            public void remove() {
+                if (current == null) throw new IllegalStateException("next() has not been called");
+                if (detached == null && !writeThrough(null)) detach();
+                if (detached != null) {
+                    detached.remove(createEntity(current));
+                } else {
+                    removeRelationshipsTo(current);
+                }
+                current = null;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        if (detached != null) return detached.size();
+        if (size == -1) {
+            int count = 0;
+            for (Iterator<Node> it = relatedNodes(); it.hasNext(); it.next()) {
+                count++;
+            }
+            size = count;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (detached != null) return detached.isEmpty();
+        if (size != -1) return size == 0;
+        return !accessor.getRelationships(node).iterator().hasNext();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (detached != null) return detached.contains(o);
+        final Node target = targetNode(o);
+        return target != null && accessor.findRelationshipTo(node, target) != null;
+    }
+
+    @Override
+    public boolean add(TARGET target) {
+        if (!accessor.relatedType.isInstance(target)) {
+            throw new IllegalArgumentException("New value elements must be " + accessor.relatedType);
+        }
+        if (detached == null && !writeThrough(target)) detach();
+        if (detached != null) return detached.add(target);
+        final Node targetNode = target.getPersistentState();
+        if (accessor.findRelationshipTo(node, targetNode) != null) return false;
+        accessor.createRelationshipTo(node, targetNode);
+        if (size != -1) size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (detached == null && !writeThrough(null)) detach();
+        if (detached != null) return detached.remove(o);
+        final Node target = targetNode(o);
+        return target != null && removeRelationshipsTo(target);
+    }
+
+    @Override
+    public void clear() {
+        if (detached == null && !writeThrough(null)) detach();
+        if (detached != null) {
+            detached.clear();
+            return;
+        }
+        for (Relationship relationship : accessor.getRelationships(node)) {
+            relationship.delete();
+        }
+        size = 0;
+    }
+
+    private boolean writeThrough(TARGET target) {
+        if (!accessor.graphDatabaseContext.transactionIsRunning()) return false;
+        return target == null || target.getPersistentState() != null;
+    }
+
+    private void detach() {
+        final Set<TARGET> copy = new HashSet<TARGET>();
+        for (Iterator<Node> it = relatedNodes(); it.hasNext(); ) {
+            copy.add(createEntity(it.next()));
+        }
+        detached = new ManagedFieldAccessorSet<ENTITY, TARGET>(entity, copy, accessor.property);
+    }
+
+    private boolean removeRelationshipsTo(Node target) {
+        boolean removed = false;
+        Relationship deleted = null;
+        Relationship relationship;
+        while ((relationship = accessor.findRelationshipTo(node, target)) != null && !relationship.equals(deleted)) {
+            relationship.delete();
+            deleted = relationship;
+            removed = true;
+        }
+        if (removed && size != -1) size--;
+        return removed;
+    }
+
+    private Node targetNode(Object o) {
+        if (!accessor.relatedType.isInstance(o)) return null;
+        return ((NodeBacked) o).getPersistentState();
+    }
+
+    private TARGET createEntity(Node target) {
+        return accessor.graphDatabaseContext.createEntityFromState(target, accessor.relatedType);
+    }
+
+    /**
+     * several relationships (of both directions or multiple ones of the same direction) can lead to the same node,
+     * these duplicates are skipped
+     */
+    private Iterator<Node> relatedNodes() {
+        final Iterator<Relationship> relationships = accessor.getRelationships(node).iterator();
+        final Set<Node> seen = new HashSet<Node>();
+        return new Iterator<Node>() {
+            private Node next;
+
+            public boolean hasNext() {
+                while (next == null && relationships.hasNext()) {
+                    final Node other = relationships.next().getOtherNode(node);
+                    if (seen.add(other)) next = other;
+                }
+                return next != null;
+            }
+
+            public Node next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                final Node result = next;
+                next = null;
+                return result;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
@@ -24,6 +24,7 @@ import org.springframework.data.neo4j.core.GraphBacked;
 import org.springframework.data.neo4j.core.NodeBacked;
 import org.springframework.data.neo4j.mapping.Neo4JPersistentProperty;
 import org.springframework.data.neo4j.support.GraphDatabaseContext;
+import org.springframework.data.neo4j.support.RelationshipLookup;
 
 import java.lang.reflect.Field;
 import java.util.HashSet;
@@ -40,13 +41,34 @@ public abstract class NodeToNodesRelationshipFieldAccessor<T extends NodeBacked,
 
     @Override
     protected Relationship obtainSingleRelationship(final Node start, final Node end) {
-        final Iterable<Relationship> existingRelationships = start.getRelationships(type, direction);
-        for (final Relationship existingRelationship : existingRelationships) {
-            if (existingRelationship!=null && existingRelationship.getOtherNode(start).equals(end)) return existingRelationship;
-        }
+        // called with start and end already swapped for incoming relationships
+        final Relationship existingRelationship = RelationshipLookup.findRelationship(start, end, type, direction == Direction.BOTH ? Direction.BOTH : Direction.OUTGOING);
+        if (existingRelationship != null) return existingRelationship;
         return start.createRelationshipTo(end, type);
     }
 
+    /**
+     * @return the relationships of the node that belong to this field
+     */
+    protected Iterable<Relationship> getRelationships(final Node node) {
+        return node.getRelationships(type, direction);
+    }
+
+    /**
+     * @return a relationship of this field between node and target or null
+     */
+    protected Relationship findRelationshipTo(final Node node, final Node target) {
+        return RelationshipLookup.findRelationship(node, target, type, direction);
+    }
+
+    /**
+     * creates a relationship of this field between node and target without checking for an existing one
+     */
+    protected Relationship createRelationshipTo(final Node node, final Node target) {
+        if (direction == Direction.INCOMING) return target.createRelationshipTo(node, type);
+        return node.createRelationshipTo(target, type);
+    }
+
     @Override
     protected Iterable<Node> getStatesFromEntity(final NodeBacked entity) {
         final Node entityNode = getState(entity);
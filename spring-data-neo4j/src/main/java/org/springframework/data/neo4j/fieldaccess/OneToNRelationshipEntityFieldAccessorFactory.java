@@ -18,6 +18,8 @@ package org.springframework.data.neo4j.fieldaccess;
 
 import static org.springframework.data.neo4j.support.DoReturn.doReturn;
 
+import java.util.Collections;
+
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
@@ -69,6 +71,7 @@ public class OneToNRelationshipEntityFieldAccessorFactory implements FieldAccess
 	    @Override
 	    public Object getValue(final NodeBacked entity) {
 	        checkUnderlyingNode(entity);
+	        if (isFetch()) return doReturn(Collections.unmodifiableSet(createEntitySetFromRelationshipEndNodes(entity)));
 	        return doReturn(iterableFrom(entity));
 	    }
 
@@ -59,6 +59,9 @@ public class OneToNRelationshipFieldAccessorFactory<T extends NodeBacked, TARGET
 	    @Override
 		public Object setValue(final T entity, final Object newVal) {
 	        final Node node = checkUnderlyingNode(entity);
+	        if (newVal instanceof ManagedRelatedNodesSet && ((ManagedRelatedNodesSet) newVal).isBackedBy(node)) {
+	            return newVal; // changes were already applied to the graph
+	        }
 	        if (newVal == null) {
 	            removeMissingRelationships(node, Collections.<Node>emptySet());
 	            return null;
@@ -71,9 +74,8 @@ public class OneToNRelationshipFieldAccessorFactory<T extends NodeBacked, TARGET
 
 	    @Override
 	    public Object getValue(final T entity) {
-	        checkUnderlyingNode(entity);
-	        final Set<TARGET> result = createEntitySetFromRelationshipEndNodes(entity);
-	        return doReturn(createManagedSet(entity, result));
+	        final Node node = checkUnderlyingNode(entity);
+	        return doReturn(new ManagedRelatedNodesSet<T, TARGET>(entity, node, this));
 	    }
 
 	    @Override
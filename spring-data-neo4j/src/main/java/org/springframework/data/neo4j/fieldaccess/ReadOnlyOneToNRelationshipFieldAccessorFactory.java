@@ -16,6 +16,10 @@
 
 package org.springframework.data.neo4j.fieldaccess;
 
+import static org.springframework.data.neo4j.support.DoReturn.doReturn;
+
+import java.util.Collections;
+
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.RelationshipType;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
@@ -59,5 +63,12 @@ public class ReadOnlyOneToNRelationshipFieldAccessorFactory<T extends NodeBacked
 			throw new InvalidDataAccessApiUsageException("Cannot set read-only relationship entity field.");
 		}
 
+	    @Override
+	    public Object getValue(final T entity) {
+	        if (!isFetch()) return super.getValue(entity);
+	        checkUnderlyingNode(entity);
+	        return doReturn(Collections.unmodifiableSet(createEntitySetFromRelationshipEndNodes(entity)));
+	    }
+
 	}
 }
@@ -18,6 +18,7 @@ package org.springframework.data.neo4j.fieldaccess;
 
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
 import org.springframework.data.neo4j.core.NodeBacked;
 import org.springframework.data.neo4j.mapping.Neo4JPersistentProperty;
@@ -66,10 +67,11 @@ public class SingleRelationshipFieldAccessorFactory<T extends NodeBacked, TARGET
 
 	    @Override
 		public Object getValue(final T entity) {
-	        checkUnderlyingNode(entity);
-	        final Set<TARGET> result = createEntitySetFromRelationshipEndNodes(entity);
-            final TARGET singleEntity = result.isEmpty() ? null : result.iterator().next();
-            return doReturn(singleEntity);
+	        final Node node = checkUnderlyingNode(entity);
+	        for (final Relationship relationship : getRelationships(node)) {
+	            return doReturn(graphDatabaseContext.createEntityFromState(relationship.getOtherNode(node), relatedType));
+	        }
+	        return doReturn(null);
 		}
 
 	}
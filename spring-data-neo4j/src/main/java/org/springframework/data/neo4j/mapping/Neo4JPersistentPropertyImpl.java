@@ -202,6 +202,10 @@ class Neo4JPersistentPropertyImpl extends AbstractPersistentProperty<Neo4JPersis
         public boolean isFulltext() {
             return fulltext;
         }
+
+        public Indexed.Level getLevel() {
+            return level;
+        }
     }
 
     @Override
@@ -39,6 +39,7 @@ public class RelationshipInfo {
     private final TypeInformation<?> targetType;
     private final boolean targetsNodes;
     private boolean readonly;
+    private final boolean fetch;
 
     public Direction getDirection() {
         return direction;
@@ -56,12 +57,20 @@ public class RelationshipInfo {
     }
 
     public RelationshipInfo(String type, Direction direction, TypeInformation<?> typeInformation, TypeInformation<?> concreteActualType, boolean targetsNode) {
+        this(type, direction, typeInformation, concreteActualType, targetsNode, false);
+    }
+
+    public RelationshipInfo(String type, Direction direction, TypeInformation<?> typeInformation, TypeInformation<?> concreteActualType, boolean targetsNode, boolean fetch) {
         this.type = type;
+        this.fetch = fetch;
         this.direction = direction;
         isMultiple = typeInformation.isCollectionLike();
         targetType = concreteActualType!=null ? concreteActualType : typeInformation.getActualType();
         targetsNodes = isNodeEntity(targetType);
         this.readonly = isMultiple() && typeInformation.getType().equals(Iterable.class);
+        if (fetch && isMultiple && targetsNodes && !readonly) {
+            throw new MappingException("Relationship " + this.type + " can only be fetched for single or read-only (Iterable) fields, modifiable collections are changed in place");
+        }
     }
 
     private boolean isNodeEntity(TypeInformation<?> targetType) {
@@ -81,7 +90,8 @@ public class RelationshipInfo {
                 annotation.direction().toNeo4jDir(),
                 typeInformation,
                 annotation.elementClass() != NodeBacked.class ? ClassTypeInformation.from(annotation.elementClass()) : null,
-                true);
+                true,
+                annotation.fetch());
     }
 
     public static RelationshipInfo fromField(Field field, RelatedToVia annotation, TypeInformation<?> typeInformation) {
@@ -90,7 +100,8 @@ public class RelationshipInfo {
                 annotation.direction().toNeo4jDir(),
                 typeInformation,
                 annotation.elementClass() != RelationshipBacked.class ? ClassTypeInformation.from(annotation.elementClass()) : null,
-                false);
+                false,
+                annotation.fetch());
     }
 
     public TypeInformation<?> getTargetType() {
@@ -104,4 +115,11 @@ public class RelationshipInfo {
     public boolean isReadonly() {
         return readonly;
     }
+
+    /**
+     * @return true if the loaded value is kept with the entity state, see {@link RelatedTo#fetch()}
+     */
+    public boolean isFetch() {
+        return fetch;
+    }
 }
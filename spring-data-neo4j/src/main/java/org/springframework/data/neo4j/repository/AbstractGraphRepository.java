@@ -16,9 +16,12 @@
 
 package org.springframework.data.neo4j.repository;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.lucene.search.NumericRangeQuery;
 import org.neo4j.graphdb.NotFoundException;
 import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.index.Index;
 import org.neo4j.graphdb.index.IndexHits;
 import org.neo4j.helpers.collection.ClosableIterable;
@@ -28,12 +31,16 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.neo4j.core.GraphBacked;
+import org.springframework.data.neo4j.mapping.Neo4JMappingContext;
+import org.springframework.data.neo4j.mapping.Neo4JPersistentProperty;
 import org.springframework.data.neo4j.support.GraphDatabaseContext;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 /**
  * Repository like finder for Node and Relationship-Entities. Provides finder methods for direct access, access via {@link org.springframework.data.neo4j.core.TypeRepresentationStrategy}
@@ -44,6 +51,8 @@ import java.util.List;
  */
 @org.springframework.stereotype.Repository
 public abstract class AbstractGraphRepository<S extends PropertyContainer, T extends GraphBacked<S>> implements GraphRepository<T>, NamedIndexRepository<T> {
+    private static final Log log = LogFactory.getLog(AbstractGraphRepository.class);
+
     public static final ClosableIterable EMPTY_CLOSABLE_ITERABLE = new ClosableIterable() {
         @Override
         public void close() {
@@ -236,6 +245,8 @@ public abstract class AbstractGraphRepository<S extends PropertyContainer, T ext
 
     protected abstract S getById(long id);
 
+    protected abstract long getId(S state);
+
     @Override
     public boolean exists(Long id) {
         try {
@@ -257,9 +268,7 @@ public abstract class AbstractGraphRepository<S extends PropertyContainer, T ext
 
     @Override
     public void delete(Iterable<? extends T> entities) {
-        for (T entity : entities) {
-            entity.remove();
-        }
+        graphDatabaseContext.removeEntities(entities);
     }
 
     @Override
@@ -267,38 +276,162 @@ public abstract class AbstractGraphRepository<S extends PropertyContainer, T ext
         delete(findAll());
     }
 
+    @Override
+    public long delete(Iterable<? extends T> entities, int batchSize, BatchDeleteCallback callback) {
+        final BatchDelete batchDelete = new BatchDelete(batchSize, callback);
+        List<T> batch = new ArrayList<T>(batchSize);
+        for (T entity : entities) {
+            batch.add(entity);
+            if (batch.size() == batchSize) {
+                batchDelete.delete(batch);
+                batch = new ArrayList<T>(batchSize);
+            }
+        }
+        batchDelete.delete(batch);
+        return batchDelete.finish();
+    }
+
+    /**
+     * Streams the ids of the nodes or relationships of the target type once and deletes them batch by batch,
+     * no entities are instantiated.
+     */
+    @Override
+    public long deleteAll(int batchSize, BatchDeleteCallback callback) {
+        final BatchDelete batchDelete = new BatchDelete(batchSize, callback);
+        final List<Long> batch = new ArrayList<Long>(batchSize);
+        final ClosableIterable<S> states = graphDatabaseContext.findAllStates(clazz);
+        try {
+            for (S state : states) {
+                batch.add(getId(state));
+                if (batch.size() == batchSize) {
+                    batchDelete.deleteStates(batch);
+                    batch.clear();
+                }
+            }
+        } finally {
+            states.close();
+        }
+        batchDelete.deleteStates(batch);
+        return batchDelete.finish();
+    }
+
+    private class BatchDelete {
+        private final int batchSize;
+        private final BatchDeleteCallback callback;
+        private final long start = System.currentTimeMillis();
+        private long count;
+
+        BatchDelete(int batchSize, BatchDeleteCallback callback) {
+            if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive, was " + batchSize);
+            this.batchSize = batchSize;
+            this.callback = callback;
+        }
+
+        void delete(List<T> batch) {
+            if (batch.isEmpty()) return;
+            Transaction tx = graphDatabaseContext.beginTx();
+            try {
+                graphDatabaseContext.removeEntities(batch);
+                tx.success();
+            } finally {
+                tx.finish();
+            }
+            committed(batch.size());
+        }
+
+        void deleteStates(List<Long> ids) {
+            if (ids.isEmpty()) return;
+            Transaction tx = graphDatabaseContext.beginTx();
+            try {
+                final List<S> states = new ArrayList<S>(ids.size());
+                for (Long id : ids) {
+                    states.add(getById(id));
+                }
+                graphDatabaseContext.removeStates(states, clazz);
+                tx.success();
+            } finally {
+                tx.finish();
+            }
+            committed(ids.size());
+        }
+
+        private void committed(int batchCount) {
+            count += batchCount;
+            if (callback != null) callback.batchCommitted(batchCount, count, elapsed());
+        }
+
+        private long elapsed() {
+            return System.currentTimeMillis() - start;
+        }
+
+        long finish() {
+            if (log.isInfoEnabled()) {
+                final long elapsed = elapsed();
+                log.info(String.format("Deleted %d entities of %s in batches of %d in %d ms (%d entities/s)",
+                        count, clazz.getSimpleName(), batchSize, elapsed, elapsed == 0 ? count : count * 1000 / elapsed));
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Sorts the nodes or relationships of the target type by their property values, only the returned entities are
+     * instantiated.
+     */
     @Override
     public ClosableIterable<T> findAll(Sort sort) {
-        return findAll(); // todo
+        if (sort == null) return findAll();
+        return new StatesWrapper(sortedStates(sort, Integer.MAX_VALUE).states);
     }
 
+    /**
+     * Skips and sorts the nodes or relationships of the target type, only the entities of the requested page
+     * are instantiated.
+     */
     @Override
     public Page<T> findAll(final Pageable pageable) {
         int count = pageable.getPageSize();
         int offset = pageable.getOffset();
-        ClosableIterable<T> foundEntities = findAll(pageable.getSort());
-        final Iterator<T> iterator = foundEntities.iterator();
-        final PageImpl<T> page = extractPage(pageable, count, offset, iterator);
-        foundEntities.close();
-        return page;
+        final Sort sort = pageable.getSort();
+        if (sort != null) {
+            return extractSortedPage(pageable, offset, sortedStates(sort, offset + count));
+        }
+        final ClosableIterable<S> states = graphDatabaseContext.findAllStates(clazz);
+        try {
+            return extractPage(pageable, count, offset, states.iterator());
+        } finally {
+            states.close();
+        }
     }
 
-    private PageImpl<T> extractPage(Pageable pageable, int count, int offset, Iterator<T> iterator) {
-        final List<T> result = new ArrayList<T>(count);
-        int total=subList(offset, count, iterator, result);
+    private PageImpl<T> extractPage(Pageable pageable, int count, int offset, Iterator<S> iterator) {
+        final List<S> states = new ArrayList<S>(count);
+        int total=subList(offset, count, iterator, states);
         if (iterator.hasNext()) total++;
+        final List<T> result = new ArrayList<T>(states.size());
+        for (S state : states) {
+            result.add(createEntity(state));
+        }
         return new PageImpl<T>(result, pageable, total);
     }
 
-    private int subList(int skip, int limit, Iterator<T> source, final List<T> list) {
+    private PageImpl<T> extractSortedPage(Pageable pageable, int offset, SortedStates<S> sorted) {
+        final List<T> result = new ArrayList<T>();
+        for (int i = offset; i < sorted.states.size(); i++) {
+            result.add(createEntity(sorted.states.get(i)));
+        }
+        return new PageImpl<T>(result, pageable, sorted.total);
+    }
+
+    private int subList(int skip, int limit, Iterator<S> source, final List<S> list) {
         int count=0;
         while (source.hasNext()) {
             count++;
-            T t = source.next();
+            S s = source.next();
             if (skip > 0) {
                 skip--;
             } else {
-                list.add(t);
+                list.add(s);
                 limit--;
             }
             if (limit + skip == 0) break;
@@ -306,6 +439,128 @@ public abstract class AbstractGraphRepository<S extends PropertyContainer, T ext
         return count;
     }
 
+    /**
+     * @param limit number of leading states to return, only that many are kept in a bounded heap while reading
+     */
+    private SortedStates<S> sortedStates(Sort sort, int limit) {
+        final List<String> keys = new ArrayList<String>();
+        final List<Boolean> ascending = new ArrayList<Boolean>();
+        for (Sort.Order order : sort) {
+            keys.add(propertyName(order.getProperty()));
+            ascending.add(order.isAscending());
+        }
+        final Comparator<SortEntry<?>> comparator = new SortEntryComparator(ascending);
+        // head of the heap is the last of the kept entries, the first one to drop
+        final PriorityQueue<SortEntry<S>> heap = new PriorityQueue<SortEntry<S>>(11, Collections.reverseOrder(comparator));
+        int total = 0;
+        final ClosableIterable<S> states = graphDatabaseContext.findAllStates(clazz);
+        try {
+            for (S state : states) {
+                final Object[] values = new Object[keys.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = state.getProperty(keys.get(i), null);
+                }
+                final SortEntry<S> entry = new SortEntry<S>(state, values, total++);
+                if (heap.size() < limit) {
+                    heap.add(entry);
+                } else if (!heap.isEmpty() && comparator.compare(entry, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(entry);
+                }
+            }
+        } finally {
+            states.close();
+        }
+        final List<SortEntry<S>> entries = new ArrayList<SortEntry<S>>(heap);
+        Collections.sort(entries, comparator);
+        final List<S> result = new ArrayList<S>(entries.size());
+        for (SortEntry<S> entry : entries) {
+            result.add(entry.state);
+        }
+        return new SortedStates<S>(result, total);
+    }
+
+    private String propertyName(String property) {
+        final Neo4JMappingContext mappingContext = graphDatabaseContext.getMappingContext();
+        if (mappingContext == null) return property;
+        final Neo4JPersistentProperty persistentProperty = mappingContext.getPersistentEntity(clazz).getPersistentProperty(property);
+        return persistentProperty != null ? persistentProperty.getNeo4jPropertyName() : property;
+    }
+
+    private static class SortedStates<S> {
+        private final List<S> states;
+        private final int total;
+
+        SortedStates(List<S> states, int total) {
+            this.states = states;
+            this.total = total;
+        }
+    }
+
+    private static class SortEntry<S> {
+        private final S state;
+        private final Object[] values;
+        private final int position;
+
+        SortEntry(S state, Object[] values, int position) {
+            this.state = state;
+            this.values = values;
+            this.position = position;
+        }
+    }
+
+    /**
+     * compares numbers by value and other comparable values of the same type naturally, missing values go last,
+     * equal entries keep the order in which they were read so that pages don't overlap
+     */
+    private static class SortEntryComparator implements Comparator<SortEntry<?>> {
+        private final List<Boolean> ascending;
+
+        SortEntryComparator(List<Boolean> ascending) {
+            this.ascending = ascending;
+        }
+
+        @Override
+        public int compare(SortEntry<?> entry1, SortEntry<?> entry2) {
+            for (int i = 0; i < ascending.size(); i++) {
+                final Object value1 = entry1.values[i];
+                final Object value2 = entry2.values[i];
+                if (value1 == value2) continue;
+                if (value1 == null) return 1;
+                if (value2 == null) return -1;
+                final int result = compareValues(value1, value2);
+                if (result != 0) return ascending.get(i) ? result : -result;
+            }
+            return entry1.position < entry2.position ? -1 : (entry1.position == entry2.position ? 0 : 1);
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compareValues(Object value1, Object value2) {
+            if (value1 instanceof Number && value2 instanceof Number) {
+                return Double.compare(((Number) value1).doubleValue(), ((Number) value2).doubleValue());
+            }
+            if (value1 instanceof Comparable && value1.getClass().equals(value2.getClass())) {
+                return ((Comparable<Object>) value1).compareTo(value2);
+            }
+            return value1.toString().compareTo(value2.toString());
+        }
+    }
+
+    private class StatesWrapper extends IterableWrapper<T, S> implements ClosableIterable<T> {
+        public StatesWrapper(Iterable<S> states) {
+            super(states);
+        }
+
+        @Override
+        protected T underlyingObjectToObject(final S state) {
+            return createEntity(state);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
     private class IndexHitsWrapper extends IterableWrapper<T, S> implements ClosableIterable<T> {
         private final IndexHits<S> indexHits;
 
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.repository;
+
+/**
+ * Progress callback for the batched deletes of {@link CRUDRepository}, called after each committed batch.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public interface BatchDeleteCallback {
+    /**
+     * @param batchCount number of entities deleted in the committed batch
+     * @param totalCount number of entities deleted so far
+     * @param elapsedMillis time since the start of the delete
+     */
+    void batchCommitted(int batchCount, long totalCount, long elapsedMillis);
+}
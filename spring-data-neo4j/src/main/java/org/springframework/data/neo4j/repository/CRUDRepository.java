@@ -88,7 +88,7 @@ public interface CRUDRepository<T extends GraphBacked<?>> extends PagingAndSorti
 
 
     /**
-     * deletes the given entities by calling their entity.remove() methods
+     * deletes the given entities like their entity.remove() methods, but removes them from each index in one go
      * @param entities to delete
      */
     @Transactional
@@ -103,8 +103,28 @@ public interface CRUDRepository<T extends GraphBacked<?>> extends PagingAndSorti
 
 
     /**
-     * finder that takes the provided sorting into account
-     * NOTE: the sorting is not yet implemented
+     * deletes the given entities in transactions of at most batchSize entities each, to be called outside of a running
+     * transaction (otherwise all batches become part of it)
+     * @param entities to delete
+     * @param batchSize number of entities deleted per transaction
+     * @param callback notified after each committed batch, may be null
+     * @return number of deleted entities
+     */
+    long delete(Iterable<? extends T> entities, int batchSize, BatchDeleteCallback callback);
+
+
+    /**
+     * removes all entities of this type in transactions of at most batchSize entities each, to be called outside of a
+     * running transaction (otherwise all batches become part of it)
+     * @param batchSize number of entities deleted per transaction
+     * @param callback notified after each committed batch, may be null
+     * @return number of deleted entities
+     */
+    long deleteAll(int batchSize, BatchDeleteCallback callback);
+
+
+    /**
+     * finder that takes the provided sorting into account, sorts by the property values stored in the graph
      * @param sort
      * @return all elements of the repository type, sorted according to the sort
      * NOTE: please close the iterable if it is not fully looped through
@@ -113,8 +133,7 @@ public interface CRUDRepository<T extends GraphBacked<?>> extends PagingAndSorti
 
 
     /**
-     * finder that takes the provided sorting and paging into account
-     * NOTE: the sorting is not yet implemented
+     * finder that takes the provided sorting and paging into account, only the entities of the page are loaded
      *
      * @param pageable
      * @return all elements of the repository type, sorted according to the sort
@@ -16,6 +16,7 @@
 
 package org.springframework.data.neo4j.repository;
 
+import org.neo4j.helpers.collection.ClosableIterable;
 import org.neo4j.helpers.collection.IteratorUtil;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -26,24 +27,32 @@ import org.springframework.data.neo4j.annotation.QueryType;
 import org.springframework.data.neo4j.annotation.RelationshipEntity;
 import org.springframework.data.neo4j.core.NodeBacked;
 import org.springframework.data.neo4j.core.RelationshipBacked;
+import org.springframework.data.neo4j.mapping.Neo4JMappingContext;
+import org.springframework.data.neo4j.repository.query.CypherQuery;
 import org.springframework.data.neo4j.support.GenericTypeExtractor;
 import org.springframework.data.neo4j.support.GraphDatabaseContext;
-import org.springframework.data.neo4j.support.conversion.EntityResultConverter;
 import org.springframework.data.neo4j.support.query.CypherQueryExecutor;
-import org.springframework.data.neo4j.support.query.GremlinQueryEngine;
+import org.springframework.data.neo4j.support.query.QueryEngine;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingNodeTypeRepresentationStrategy;
 import org.springframework.data.repository.core.EntityInformation;
 import org.springframework.data.repository.core.NamedQueries;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
 import org.springframework.data.repository.query.*;
+import org.springframework.data.repository.query.parser.PartTree;
 import org.springframework.util.Assert;
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.springframework.core.annotation.AnnotationUtils.findAnnotation;
 import static org.springframework.data.neo4j.annotation.QueryType.Cypher;
@@ -112,7 +121,7 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
         return new QueryLookupStrategy() {
             @Override
             public RepositoryQuery resolveQuery(Method method, RepositoryMetadata repositoryMetadata, NamedQueries namedQueries) {
-                final GraphQueryMethod queryMethod = new GraphQueryMethod(method, repositoryMetadata,namedQueries);
+                final GraphQueryMethod queryMethod = new GraphQueryMethod(method, repositoryMetadata,namedQueries, GraphRepositoryFactory.this.graphDatabaseContext);
                 return queryMethod.createQuery(repositoryMetadata, GraphRepositoryFactory.this.graphDatabaseContext);
             }
         };
@@ -123,13 +132,61 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
         private final Method method;
         private final Query queryAnnotation;
         private final String query;
-
-        public GraphQueryMethod(Method method, RepositoryMetadata metadata, NamedQueries namedQueries) {
+        private final String countQuery;
+        private final CypherQuery derivedQuery;
+        // prepared once, so that invocations only bind the arguments
+        private final QueryMethod.Type queryType;
+        private final Class<?> compoundType;
+        private final boolean iterableResult;
+        private final int[] parameterIndexes;
+        private final String[] parameterNames;
+        private final int sortIndex;
+        private final int pageableIndex;
+        private final String derivedSortOrder;
+        private final String preparedQuery;
+
+        public GraphQueryMethod(Method method, RepositoryMetadata metadata, NamedQueries namedQueries, GraphDatabaseContext graphDatabaseContext) {
             super(method, metadata);
             this.method = method;
             queryAnnotation = method.getAnnotation(Query.class);
-            this.query = queryAnnotation != null ? queryAnnotation.value() : getNamedQuery(namedQueries);
+            final String givenQuery = queryAnnotation != null ? queryAnnotation.value() : getNamedQuery(namedQueries);
+            this.derivedQuery = givenQuery == null ? deriveQuery(metadata, graphDatabaseContext) : null;
+            this.query = derivedQuery != null ? derivedQuery.toString() : givenQuery;
             if (this.query==null) throw new IllegalArgumentException("Could not extract a query from "+method);
+            this.countQuery = queryAnnotation != null && !queryAnnotation.countQuery().isEmpty() ? queryAnnotation.countQuery() : null;
+            this.queryType = getType();
+            this.compoundType = resolveCompoundType();
+            this.iterableResult = Iterable.class.isAssignableFrom(method.getReturnType());
+            final Parameters parameters = getParameters();
+            final Parameters bindableParameters = parameters.getBindableParameters();
+            this.parameterIndexes = new int[bindableParameters.getNumberOfParameters()];
+            this.parameterNames = new String[parameterIndexes.length];
+            int i = 0;
+            for (Parameter parameter : bindableParameters) {
+                parameterIndexes[i] = parameter.getIndex();
+                parameterNames[i] = parameter.getName();
+                i++;
+            }
+            this.sortIndex = parameters.hasSortParameter() ? parameters.getSortIndex() : -1;
+            this.pageableIndex = parameters.hasPageableParameter() ? parameters.getPageableIndex() : -1;
+            this.derivedSortOrder = derivedQuery != null && derivedQuery.getSort() != null ? getSortOrder(derivedQuery.getSort()) : "";
+            this.preparedQuery = derivedSortOrder.isEmpty() ? query : query + " order by " + derivedSortOrder;
+        }
+
+        /**
+         * compiles the finder method name into a cypher query, only done once when the repository is created
+         */
+        private CypherQuery deriveQuery(RepositoryMetadata metadata, GraphDatabaseContext graphDatabaseContext) {
+            final Class<?> domainClass = metadata.getDomainClass();
+            if (!NodeBacked.class.isAssignableFrom(domainClass)) {
+                throw new IllegalArgumentException("Could not extract a query from " + method + ", derived finders are only supported for node entities");
+            }
+            final Neo4JMappingContext mappingContext = graphDatabaseContext.getMappingContext();
+            if (mappingContext == null) {
+                throw new IllegalStateException("Derived finder " + method + " requires a mapping context");
+            }
+            final boolean typeIndexed = graphDatabaseContext.getNodeTypeRepresentationStrategy() instanceof IndexingNodeTypeRepresentationStrategy;
+            return new CypherQuery(new PartTree(method.getName(), domainClass), domainClass, mappingContext, typeIndexed);
         }
 
         public boolean isValid() {
@@ -149,55 +206,58 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
         }
 
         private String prepareQuery(Object[] args) {
-            final Parameters parameters = getParameters();
-            String queryString = this.query;
-            if (parameters.hasSortParameter()) {
-                queryString = addSorting(queryString, (Sort) args[parameters.getSortIndex()]);
+            final Sort sort = sortIndex == -1 ? null : (Sort) args[sortIndex];
+            final Pageable pageable = getPageable(args);
+            if (sort == null && pageable == null) return preparedQuery;
+            final StringBuilder queryString = new StringBuilder(query);
+            String separator = " order by ";
+            if (!derivedSortOrder.isEmpty()) {
+                queryString.append(separator).append(derivedSortOrder);
+                separator = ", ";
             }
-            if (parameters.hasPageableParameter()) {
-                final Pageable pageable = getPageable(args);
-                if (pageable!=null) {
-                    queryString = addSorting(queryString, pageable.getSort());
-                    queryString = addPaging(queryString, pageable);
-                }
+            if (sort != null) separator = appendSortOrder(queryString, separator, sort);
+            if (pageable != null) {
+                if (pageable.getSort() != null) appendSortOrder(queryString, separator, pageable.getSort());
+                queryString.append(" skip ").append(pageable.getOffset()).append(" limit ").append(pageable.getPageSize());
             }
-            return queryString;
+            return queryString.toString();
         }
 
-
         private Map<String, Object> resolveParams(Object[] parameters) {
-            Map<String,Object> params=new HashMap<String, Object>();
-            for (Parameter parameter : getParameters().getBindableParameters()) {
-                final Object value = parameters[parameter.getIndex()];
-                params.put(parameter.getName(),resolveParameter(value));
+            if (derivedQuery != null) {
+                final List<Object> values = new ArrayList<Object>(parameterIndexes.length);
+                for (int index : parameterIndexes) {
+                    values.add(resolveParameter(parameters[index]));
+                }
+                return derivedQuery.resolveParams(values);
+            }
+            Map<String,Object> params=new HashMap<String, Object>(parameterIndexes.length * 2);
+            for (int i = 0; i < parameterIndexes.length; i++) {
+                params.put(parameterNames[i], resolveParameter(parameters[parameterIndexes[i]]));
             }
             return params;
         }
 
         private Pageable getPageable(Object[] args) {
-            Parameters parameters = getParameters();
-            if (parameters.hasPageableParameter()) return (Pageable) args[parameters.getPageableIndex()];
-            return null;
+            return pageableIndex == -1 ? null : (Pageable) args[pageableIndex];
         }
 
-        private String addPaging(String baseQuery, Pageable pageable) {
-            if (pageable==null) return baseQuery;
-            return baseQuery + " skip "+pageable.getOffset() + " limit " + pageable.getPageSize();
-        }
-
-        private String addSorting(String baseQuery, Sort sort) {
-            if (sort==null) return baseQuery; // || sort.isEmpty()
-            final String sortOrder = getSortOrder(sort);
-            if (sortOrder.isEmpty()) return baseQuery;
-            return baseQuery + " order by " + sortOrder;
+        private String getSortOrder(Sort sort) {
+            final StringBuilder result = new StringBuilder();
+            appendSortOrder(result, "", sort);
+            return result.toString();
         }
 
-        private String getSortOrder(Sort sort) {
-            String result = "";
+        /**
+         * @return the separator for further orders
+         */
+        private String appendSortOrder(StringBuilder result, String separator, Sort sort) {
             for (Sort.Order order : sort) {
-                result += order.getProperty() + " " + order.getDirection();
+                final String property = derivedQuery != null ? derivedQuery.qualify(order.getProperty()) : order.getProperty();
+                result.append(separator).append(property).append(' ').append(order.getDirection());
+                separator = ", ";
             }
-            return result;
+            return separator;
         }
 
         private Object resolveParameter(Object parameter) {
@@ -211,6 +271,10 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
         }
 
         private Class<?> getCompoundType() {
+            return compoundType;
+        }
+
+        private Class<?> resolveCompoundType() {
             final Class<?> elementClass = getElementClass();
             if (elementClass!=null) return elementClass;
             return GenericTypeExtractor.resolveReturnedType(method);
@@ -227,12 +291,27 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
             return this.query;
         }
 
+        /**
+         * @return the count query given in the annotation or null
+         */
+        public String getCountQueryString() {
+            return this.countQuery;
+        }
+
+        public long getCountCacheMillis() {
+            return hasAnnotation() ? queryAnnotation.countCacheMillis() : 0;
+        }
+
         public boolean hasAnnotation() {
             return queryAnnotation!=null;
         }
 
         private boolean isIterableResult() {
-            return Iterable.class.isAssignableFrom(getReturnType());
+            return iterableResult;
+        }
+
+        private QueryMethod.Type getQueryType() {
+            return queryType;
         }
 
         private RepositoryQuery createQuery(RepositoryMetadata repositoryMetadata, final GraphDatabaseContext context) {
@@ -253,45 +332,77 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
 
 
     private static class CypherGraphRepositoryQuery extends GraphRepositoryQuery {
+        private static final Pattern RETURN_CLAUSE = Pattern.compile("(?i)\\breturn\\b");
+        private static final Pattern AGGREGATION_OR_DISTINCT = Pattern.compile("(?i)\\(|\\bdistinct\\b");
 
         private CypherQueryExecutor queryExecutor;
+        private final String countQuery;
 
         public CypherGraphRepositoryQuery(GraphQueryMethod queryMethod, RepositoryMetadata metadata, final GraphDatabaseContext graphDatabaseContext) {
             super(queryMethod, metadata, graphDatabaseContext);
-            queryExecutor = new CypherQueryExecutor(graphDatabaseContext);
+            queryExecutor = graphDatabaseContext.getCypherQueryExecutor();
+            final String givenCountQuery = queryMethod.getCountQueryString();
+            countQuery = givenCountQuery != null ? givenCountQuery : deriveCountQuery(queryMethod.getQueryString());
+        }
+
+        /**
+         * replaces the return clause with count(*), not possible for aggregating or distinct return clauses
+         * @return the count query or null
+         */
+        static String deriveCountQuery(String query) {
+            final Matcher matcher = RETURN_CLAUSE.matcher(query);
+            int returnStart = -1;
+            while (matcher.find()) {
+                returnStart = matcher.start();
+            }
+            if (returnStart == -1) return null;
+            if (AGGREGATION_OR_DISTINCT.matcher(query.substring(returnStart)).find()) return null;
+            return query.substring(0, returnStart) + "return count(*)";
+        }
+
+        @Override
+        protected long count(Map<String, Object> params) {
+            if (countQuery == null) return countRows(queryExecutor.queryForList(getQueryMethod().getQueryString(), params));
+            return singleNumber(queryExecutor.queryForList(countQuery, params));
+        }
+
+        private long singleNumber(Iterable<Map<String, Object>> rows) {
+            final Map<String, Object> row = IteratorUtil.singleOrNull(rows);
+            if (row == null || row.isEmpty()) return 0;
+            return ((Number) row.values().iterator().next()).longValue();
         }
 
         protected Object dispatchQuery(String queryString, Map<String, Object> params, Pageable pageable) {
             GraphQueryMethod queryMethod = getQueryMethod();
             final Class<?> compoundType = queryMethod.getCompoundType();
-            final QueryMethod.Type queryResultType = queryMethod.getType();
+            final QueryMethod.Type queryResultType = queryMethod.getQueryType();
             if (queryResultType== QueryMethod.Type.PAGING) {
                 return queryPaged(queryString,params,pageable);
             }
             if (queryMethod.isIterableResult()) {
                 if (compoundType.isAssignableFrom(Map.class)) return queryExecutor.queryForList(queryString,params);
-                return queryExecutor.query(queryString, queryMethod.getCompoundType(),params);
+                return queryExecutor.query(queryString, compoundType,params);
             }
             return queryExecutor.queryForObject(queryString, queryMethod.getReturnType(),params);
         }
         private Object queryPaged(String queryString, Map<String, Object> params, Pageable pageable) {
             final Iterable<?> result = queryExecutor.query(queryString, getQueryMethod().getCompoundType(),params);
-            return createPage(result, pageable);
+            return createPage(result, pageable, params);
         }
     }
 
     private static class GremlinGraphRepositoryQuery extends GraphRepositoryQuery {
 
-        private GremlinQueryEngine queryExecutor;
+        private QueryEngine<Object> queryExecutor;
 
         public GremlinGraphRepositoryQuery(GraphQueryMethod queryMethod, RepositoryMetadata metadata, final GraphDatabaseContext graphDatabaseContext) {
             super(queryMethod, metadata, graphDatabaseContext);
-            queryExecutor = new GremlinQueryEngine(graphDatabaseContext.getGraphDatabaseService(), new EntityResultConverter(graphDatabaseContext));
+            queryExecutor = graphDatabaseContext.getGremlinQueryEngine();
         }
 
         protected Object dispatchQuery(String queryString, Map<String, Object> params, Pageable pageable) {
             GraphQueryMethod queryMethod = getQueryMethod();
-            final QueryMethod.Type queryResultType = queryMethod.getType();
+            final QueryMethod.Type queryResultType = queryMethod.getQueryType();
             if (queryResultType== QueryMethod.Type.PAGING) {
                 return queryPaged(queryString,params,pageable);
             }
@@ -303,13 +414,24 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
 
         private Object queryPaged(String queryString, Map<String, Object> params, Pageable pageable) {
             final Iterable<?> result = queryExecutor.query(queryString, params).to(getQueryMethod().getCompoundType());
-            return createPage(result, pageable);
+            return createPage(result, pageable, params);
+        }
+
+        @Override
+        protected long count(Map<String, Object> params) {
+            final String countQuery = getQueryMethod().getCountQueryString();
+            if (countQuery == null) return countRows(queryExecutor.query(getQueryMethod().getQueryString(), params));
+            final Object count = IteratorUtil.singleOrNull(queryExecutor.query(countQuery, params));
+            return count == null ? 0 : ((Number) count).longValue();
         }
 
     }
 
     private static abstract class GraphRepositoryQuery implements RepositoryQuery {
+        private static final int MAX_CACHED_COUNTS = 1000;
+
         private final GraphQueryMethod queryMethod;
+        private final ConcurrentMap<Map<String, Object>, CachedCount> countCache = new ConcurrentHashMap<Map<String, Object>, CachedCount>();
 
         public GraphRepositoryQuery(GraphQueryMethod queryMethod, RepositoryMetadata metadata, final GraphDatabaseContext graphDatabaseContext) {
             this.queryMethod = queryMethod;
@@ -329,12 +451,62 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
             return queryMethod;
         }
 
+        /**
+         * @return number of results of the unpaged query for the given parameters
+         */
+        protected abstract long count(Map<String, Object> params);
+
         @SuppressWarnings({"unchecked"})
-        protected Object createPage(Iterable<?> result, Pageable pageable) {
-            final List resultList = IteratorUtil.addToCollection(result, new ArrayList());
-            if (pageable==null) return new PageImpl(resultList);
-            final int currentTotal = pageable.getOffset() + pageable.getPageSize();
-            return new PageImpl(resultList, pageable, currentTotal);
+        protected Object createPage(Iterable<?> result, Pageable pageable, Map<String, Object> params) {
+            if (pageable==null) return new PageImpl(IteratorUtil.addToCollection(result, new ArrayList()));
+            final List resultList = new ArrayList(pageable.getPageSize());
+            try {
+                final Iterator<?> it = result.iterator();
+                while (resultList.size() < pageable.getPageSize() && it.hasNext()) {
+                    resultList.add(it.next());
+                }
+            } finally {
+                if (result instanceof ClosableIterable) ((ClosableIterable<?>) result).close();
+            }
+            return new PageImpl(resultList, pageable, total(resultList.size(), pageable, params));
+        }
+
+        private long total(int resultCount, Pageable pageable, Map<String, Object> params) {
+            // a page that is not full is the last one, so the total is known without counting
+            if (resultCount < pageable.getPageSize() && (resultCount > 0 || pageable.getOffset() == 0)) {
+                return pageable.getOffset() + resultCount;
+            }
+            return cachedCount(params);
+        }
+
+        private long cachedCount(Map<String, Object> params) {
+            final long cacheMillis = queryMethod.getCountCacheMillis();
+            if (cacheMillis <= 0) return count(params);
+            final long now = System.currentTimeMillis();
+            final CachedCount cached = countCache.get(params);
+            if (cached != null && cached.validUntil > now) return cached.count;
+            final long count = count(params);
+            if (countCache.size() >= MAX_CACHED_COUNTS) countCache.clear();
+            countCache.put(params, new CachedCount(count, now + cacheMillis));
+            return count;
+        }
+
+        protected long countRows(Iterable<?> rows) {
+            long count = 0;
+            for (Object row : rows) {
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private static class CachedCount {
+        private final long count;
+        private final long validUntil;
+
+        CachedCount(long count, long validUntil) {
+            this.count = count;
+            this.validUntil = validUntil;
         }
     }
 }
\ No newline at end of file
@@ -32,6 +32,11 @@ public class NodeGraphRepository<T extends NodeBacked> extends AbstractGraphRepo
         return graphDatabaseContext.getNodeById(id);
     }
 
+    @Override
+    protected long getId(Node state) {
+        return state.getId();
+    }
+
     @Override
     public <N extends NodeBacked> Iterable<T> findAllByTraversal(final N startNode, final TraversalDescription traversalDescription) {
         return (Iterable<T>) startNode.findAllByTraversal((Class<? extends NodeBacked>) clazz, traversalDescription);
@@ -33,6 +33,11 @@ public class RelationshipGraphRepository<T extends RelationshipBacked> extends A
         return graphDatabaseContext.getRelationshipById(id);
     }
 
+    @Override
+    protected long getId(Relationship state) {
+        return state.getId();
+    }
+
     @Override
     public <N extends NodeBacked> Iterable<T> findAllByTraversal(final N startNode, final TraversalDescription traversalDescription) {
         throw new UnsupportedOperationException("Traversal not able to start at relationship");
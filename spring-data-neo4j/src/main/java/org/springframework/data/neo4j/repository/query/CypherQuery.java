@@ -16,43 +16,190 @@
 
 package org.springframework.data.neo4j.repository.query;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.springframework.data.domain.Sort;
+import org.springframework.data.neo4j.annotation.Indexed;
 import org.springframework.data.neo4j.mapping.Neo4JMappingContext;
+import org.springframework.data.neo4j.mapping.Neo4JPersistentEntity;
+import org.springframework.data.neo4j.mapping.Neo4JPersistentProperty;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingNodeTypeRepresentationStrategy;
 import org.springframework.data.repository.query.parser.Part;
-import org.springframework.data.util.TypeInformation;
+import org.springframework.data.repository.query.parser.PartTree;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
- * Value object to create {@link CypherQuery} instances.
+ * Cypher query derived from the {@link PartTree} of a repository finder method. The query is built once, the method
+ * arguments are inserted as {@code %_0, %_1, ...} parameters, rendered by {@link #resolveParams(List)}.
+ *
+ * Equality restrictions on related entities start the query at the given nodes, the first equality restriction on an
+ * exactly indexed property starts the query with an index lookup. Otherwise the query starts at the type index of the
+ * indexing type representation strategy. Restrictions on related entities are matched along their relationships.
  *
  * @author Oliver Gierke
+ * @author mh
  */
 public class CypherQuery {
 
-    private final String TEMPLATE = "start %s match % where %";
+    private static final String PARAMETER_PREFIX = "_";
 
     private final Neo4JMappingContext context;
-    private final TypeInformation<?> rootType;
+    private final Class<?> rootType;
+    private final String rootVariable;
 
-    private final Set<MatchClause> matchClauses;
+    private final List<StartClause> startClauses = new ArrayList<StartClause>();
+    private final Set<String> matchClauses = new LinkedHashSet<String>();
+    private final List<List<WhereClause>> whereClauses = new ArrayList<List<WhereClause>>();
+    private final List<ParameterFormat> parameterFormats = new ArrayList<ParameterFormat>();
+    private final Sort sort;
+    private boolean indexStart;
 
-    public CypherQuery(TypeInformation<?> rootType, Neo4JMappingContext context) {
+    /**
+     * @param tree parsed finder method
+     * @param rootType node entity type of the repository
+     * @param context mapping metadata of the entities
+     * @param typeIndexed true if instances of the root type can be found in the type index of the
+     * {@link IndexingNodeTypeRepresentationStrategy}
+     */
+    public CypherQuery(PartTree tree, Class<?> rootType, Neo4JMappingContext context, boolean typeIndexed) {
 
+        Assert.notNull(tree);
         Assert.notNull(rootType);
         Assert.notNull(context);
 
-        this.rootType =  rootType;
+        this.rootType = rootType;
         this.context = context;
-        this.matchClauses = new HashSet<MatchClause>();
+        this.rootVariable = StringUtils.uncapitalize(rootType.getSimpleName());
+        this.sort = tree.getSort();
+
+        final List<PartTree.OrPart> orParts = new ArrayList<PartTree.OrPart>();
+        for (PartTree.OrPart orPart : tree) {
+            orParts.add(orPart);
+        }
+        final boolean startAtRestrictions = orParts.size() == 1;
+        for (PartTree.OrPart orPart : orParts) {
+            final List<WhereClause> predicates = new ArrayList<WhereClause>();
+            for (Part part : orPart) {
+                addRestriction(part, startAtRestrictions, predicates);
+            }
+            if (!predicates.isEmpty()) whereClauses.add(predicates);
+        }
+        if (startClauses.isEmpty()) {
+            if (!typeIndexed) {
+                throw new IllegalArgumentException("Derived finder on " + rootType + " needs an equality restriction on an indexed property or related entity, or the indexing type representation strategy");
+            }
+            startClauses.add(StartClause.forIndex(rootVariable, IndexingNodeTypeRepresentationStrategy.INDEX_NAME,
+                    IndexingNodeTypeRepresentationStrategy.INDEX_KEY, rootType.getName()));
+        }
+    }
+
+    private void addRestriction(Part part, boolean startAtRestriction, List<WhereClause> predicates) {
+        if (part.getNumberOfArguments() != 1) {
+            throw new IllegalArgumentException("Unsupported restriction " + part.getType() + " on " + part.getProperty().toDotPath());
+        }
+        final List<Neo4JPersistentProperty> path = getPath(part);
+        final Neo4JPersistentProperty leaf = path.get(path.size() - 1);
+        if (path.size() > 1 || leaf.isRelationship()) {
+            matchClauses.add(new MatchClause(context, part.getProperty()).toString());
+        }
+        final String parameter = "%" + PARAMETER_PREFIX + parameterFormats.size();
+
+        if (leaf.isRelationship()) {
+            if (part.getType() != Part.Type.SIMPLE_PROPERTY || !startAtRestriction) {
+                throw new IllegalArgumentException("Related entity " + part.getProperty().toDotPath() + " can only be restricted by equality in finders without or");
+            }
+            startClauses.add(StartClause.forIds(leaf.getName(), parameter));
+            parameterFormats.add(ParameterFormat.ID);
+            return;
+        }
+        final String variable = path.size() > 1 ? path.get(path.size() - 2).getName() : rootVariable;
+        if (startAtRestriction && !indexStart && isIndexLookup(part, leaf)) {
+            startClauses.add(StartClause.forIndex(variable, getIndexName(leaf), getIndexKey(leaf), parameter));
+            parameterFormats.add(ParameterFormat.INDEX_VALUE);
+            indexStart = true;
+            return;
+        }
+        if (!WhereClause.supports(part.getType())) {
+            throw new IllegalArgumentException("Unsupported restriction " + part.getType() + " on " + part.getProperty().toDotPath());
+        }
+        predicates.add(new WhereClause(variable, getPropertyName(leaf), part.getType(), parameter));
+        parameterFormats.add(part.getType() == Part.Type.LIKE ? ParameterFormat.REGEX : ParameterFormat.LITERAL);
+    }
+
+    private List<Neo4JPersistentProperty> getPath(Part part) {
+        final List<Neo4JPersistentProperty> path = new ArrayList<Neo4JPersistentProperty>();
+        for (Neo4JPersistentProperty property : context.getPersistentPropertyPath(rootType, part.getProperty().toDotPath())) {
+            if (!path.isEmpty() && !path.get(path.size() - 1).isRelationship()) {
+                throw new IllegalArgumentException("Only related entities can be traversed in " + part.getProperty().toDotPath());
+            }
+            path.add(property);
+        }
+        return path;
+    }
+
+    private boolean isIndexLookup(Part part, Neo4JPersistentProperty property) {
+        return part.getType() == Part.Type.SIMPLE_PROPERTY && property.isIndexed()
+                && !property.getIndexInfo().isFulltext() && property.getIndexInfo().getLevel() != Indexed.Level.INSTANCE;
+    }
+
+    // same resolution as in IndexingPropertyFieldAccessorListenerFactory
+    private String getIndexName(Neo4JPersistentProperty property) {
+        final String indexName = property.getIndexInfo().getIndexName();
+        final Class<?> type = property.getOwner().getType();
+        return Indexed.Name.get(property.getIndexInfo().getLevel(), type, indexName.isEmpty() ? null : indexName, type);
+    }
+
+    private String getIndexKey(Neo4JPersistentProperty property) {
+        final Indexed indexed = property.getAnnotation(Indexed.class);
+        if (indexed == null || indexed.fieldName().isEmpty()) return property.getNeo4jPropertyName();
+        return indexed.fieldName();
     }
 
-    public CypherQuery addRestriction(Part part) {
+    private String getPropertyName(Neo4JPersistentProperty property) {
+        final String propertyName = property.getNeo4jPropertyName();
+        if (propertyName.contains(".")) {
+            throw new IllegalArgumentException("Property " + propertyName + " can't be used in a derived finder, its entity doesn't use short names");
+        }
+        return propertyName;
+    }
+
+    /**
+     * @return the sort given in the method name or null
+     */
+    public Sort getSort() {
+        return sort;
+    }
+
+    /**
+     * @param property name of a property of the root type or an already qualified expression
+     * @return the property as expression of the returned node
+     */
+    public String qualify(String property) {
+        if (property.contains(".")) return property;
+        final Neo4JPersistentEntity<?> entity = context.getPersistentEntity(rootType);
+        final Neo4JPersistentProperty persistentProperty = entity != null ? entity.getPersistentProperty(property) : null;
+        return rootVariable + "." + (persistentProperty != null ? getPropertyName(persistentProperty) : property);
+    }
 
-        matchClauses.add(new MatchClause(context, part.getProperty()));
-        return this;
+    /**
+     * @param values the arguments of the finder method in the order of the restrictions
+     * @return the rendered query parameters
+     */
+    public Map<String, Object> resolveParams(List<Object> values) {
+        if (values.size() != parameterFormats.size()) {
+            throw new IllegalArgumentException("Expected " + parameterFormats.size() + " parameters but got " + values.size());
+        }
+        final Map<String, Object> params = new HashMap<String, Object>();
+        for (int i = 0; i < values.size(); i++) {
+            params.put(PARAMETER_PREFIX + i, parameterFormats.get(i).format(values.get(i)));
+        }
+        return params;
     }
 
     /*
@@ -61,6 +208,71 @@ public class CypherQuery {
      */
     @Override
     public String toString() {
-        return String.format(TEMPLATE, "TODO", StringUtils.collectionToCommaDelimitedString(matchClauses), "TODO");
+        final StringBuilder query = new StringBuilder("start ");
+        query.append(StringUtils.collectionToDelimitedString(startClauses, ", "));
+        final List<String> matches = getMatchClauses();
+        if (!matches.isEmpty()) {
+            query.append(" match ").append(StringUtils.collectionToDelimitedString(matches, ", "));
+        }
+        if (!whereClauses.isEmpty()) {
+            query.append(" where ");
+            for (int i = 0; i < whereClauses.size(); i++) {
+                final String predicates = StringUtils.collectionToDelimitedString(whereClauses.get(i), " and ");
+                if (i > 0) query.append(" or ");
+                query.append(whereClauses.size() > 1 ? "(" + predicates + ")" : predicates);
+            }
+        }
+        return query.append(" return ").append(rootVariable).toString();
+    }
+
+    // paths that are contained in longer paths would match the same relationships a second time
+    private List<String> getMatchClauses() {
+        final List<String> result = new ArrayList<String>();
+        for (String clause : matchClauses) {
+            boolean contained = false;
+            for (String other : matchClauses) {
+                if (other.length() > clause.length() && other.startsWith(clause)) contained = true;
+            }
+            if (!contained) result.add(clause);
+        }
+        return result;
+    }
+
+    private enum ParameterFormat {
+        ID {
+            String format(Object value) {
+                return String.valueOf(value);
+            }
+        },
+        INDEX_VALUE {
+            String format(Object value) {
+                return escape(String.valueOf(value instanceof Enum ? ((Enum) value).name() : value));
+            }
+        },
+        LITERAL {
+            String format(Object value) {
+                if (value == null || value instanceof Number || value instanceof Boolean) return String.valueOf(value);
+                return "\"" + INDEX_VALUE.format(value) + "\"";
+            }
+        },
+        REGEX {
+            String format(Object value) {
+                final String pattern = String.valueOf(value);
+                final StringBuilder result = new StringBuilder();
+                for (int i = 0; i < pattern.length(); i++) {
+                    final char c = pattern.charAt(i);
+                    if (c == '*') result.append(".*");
+                    else if ("\\.[]{}()+?^$|/".indexOf(c) != -1) result.append('\\').append(c);
+                    else result.append(c);
+                }
+                return result.toString();
+            }
+        };
+
+        abstract String format(Object value);
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"");
+        }
     }
 }
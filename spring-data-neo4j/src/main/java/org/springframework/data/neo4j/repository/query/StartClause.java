@@ -16,6 +16,51 @@
 
 package org.springframework.data.neo4j.repository.query;
 
+/**
+ * Value object to build one start point of the {@code start} clause of a Cypher query, either node ids or an index
+ * lookup.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
 class StartClause {
 
-}
\ No newline at end of file
+    private final String variable;
+    private final String lookup;
+
+    private StartClause(String variable, String lookup) {
+        this.variable = variable;
+        this.lookup = lookup;
+    }
+
+    /**
+     * @param variable name of the started node
+     * @param ids expression that evaluates to the node id(s)
+     */
+    static StartClause forIds(String variable, String ids) {
+        return new StartClause(variable, ids);
+    }
+
+    /**
+     * @param variable name of the started node
+     * @param indexName index to look up the nodes in
+     * @param key index key
+     * @param value expression inside of the quoted index value
+     */
+    static StartClause forIndex(String variable, String indexName, String key, String value) {
+        return new StartClause(variable, String.format("%s,%s,\"%s\"", indexName, key, value));
+    }
+
+    public String getVariable() {
+        return variable;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return String.format("%s=(%s)", variable, lookup);
+    }
+}
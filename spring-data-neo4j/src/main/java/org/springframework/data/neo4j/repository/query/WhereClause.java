@@ -0,0 +1,78 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import org.springframework.data.repository.query.parser.Part;
+
+/**
+ * Value object to build a predicate of the {@code where} clause of a Cypher query, comparing a node property with a
+ * query parameter.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+class WhereClause {
+
+    private final String variable;
+    private final String propertyName;
+    private final String operator;
+    private final String parameter;
+
+    WhereClause(String variable, String propertyName, Part.Type type, String parameter) {
+        this.variable = variable;
+        this.propertyName = propertyName;
+        this.operator = getOperator(type);
+        this.parameter = type == Part.Type.LIKE ? "/" + parameter + "/" : parameter;
+    }
+
+    /**
+     * @return true if the given part type can be expressed as a where clause
+     */
+    static boolean supports(Part.Type type) {
+        return getOperator(type) != null;
+    }
+
+    private static String getOperator(Part.Type type) {
+        switch (type) {
+        case SIMPLE_PROPERTY:
+            return "=";
+        case NEGATING_SIMPLE_PROPERTY:
+            return "<>";
+        case GREATER_THAN:
+            return ">";
+        case GREATER_THAN_EQUAL:
+            return ">=";
+        case LESS_THAN:
+            return "<";
+        case LESS_THAN_EQUAL:
+            return "<=";
+        case LIKE:
+            return "=~";
+        default:
+            return null;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return String.format("%s.%s %s %s", variable, propertyName, operator, parameter);
+    }
+}
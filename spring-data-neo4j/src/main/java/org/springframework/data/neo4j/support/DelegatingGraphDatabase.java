@@ -40,6 +40,9 @@ public class DelegatingGraphDatabase implements GraphDatabase {
 
     protected GraphDatabaseService delegate;
     private ConversionService conversionService;
+    private volatile CypherQueryEngine cypherQueryEngine;
+    private volatile GremlinQueryEngine gremlinQueryEngine;
+    private IndexChangeBuffer indexChangeBuffer;
 
     public DelegatingGraphDatabase(final GraphDatabaseService delegate) {
         this.delegate = delegate;
@@ -47,6 +50,17 @@ public class DelegatingGraphDatabase implements GraphDatabase {
 
     public void setConversionService(ConversionService conversionService) {
         this.conversionService = conversionService;
+        this.cypherQueryEngine = null;
+    }
+
+    /**
+     * @param indexChangeBuffer buffered index changes, usually {@link GraphDatabaseContext#getIndexChangeBuffer()},
+     * that index reads and queries write before they run
+     */
+    public void setIndexChangeBuffer(IndexChangeBuffer indexChangeBuffer) {
+        this.indexChangeBuffer = indexChangeBuffer;
+        this.cypherQueryEngine = null;
+        this.gremlinQueryEngine = null;
     }
 
     @Override
@@ -84,6 +98,7 @@ public class DelegatingGraphDatabase implements GraphDatabase {
 
     @Override
     public <T extends PropertyContainer> Index<T> getIndex(String indexName) {
+        if (indexChangeBuffer != null) indexChangeBuffer.flush();
         IndexManager indexManager = delegate.index();
         if (indexManager.existsForNodes(indexName)) return (Index<T>) indexManager.forNodes(indexName);
         if (indexManager.existsForRelationships(indexName)) return (Index<T>) indexManager.forRelationships(indexName);
@@ -129,12 +144,30 @@ public class DelegatingGraphDatabase implements GraphDatabase {
 
     public <T> QueryEngine<T> queryEngineFor(QueryType type) {
         switch (type) {
-            case Cypher:  return (QueryEngine<T>)new CypherQueryEngine(delegate, createResultConverter());
-            case Gremlin: return (QueryEngine<T>) new GremlinQueryEngine(delegate);
+            case Cypher:  return (QueryEngine<T>) getCypherQueryEngine();
+            case Gremlin: return (QueryEngine<T>) getGremlinQueryEngine();
         }
         throw new IllegalArgumentException("Unknown Query Engine Type "+type);
     }
 
+    private CypherQueryEngine getCypherQueryEngine() {
+        CypherQueryEngine engine = cypherQueryEngine;
+        if (engine == null) {
+            engine = new CypherQueryEngine(delegate, createResultConverter(), null, indexChangeBuffer);
+            cypherQueryEngine = engine;
+        }
+        return engine;
+    }
+
+    private GremlinQueryEngine getGremlinQueryEngine() {
+        GremlinQueryEngine engine = gremlinQueryEngine;
+        if (engine == null) {
+            engine = new GremlinQueryEngine(delegate, null, indexChangeBuffer);
+            gremlinQueryEngine = engine;
+        }
+        return engine;
+    }
+
     private ConversionServiceQueryResultConverter createResultConverter() {
         if (conversionService == null) return null;
         return new ConversionServiceQueryResultConverter(conversionService);
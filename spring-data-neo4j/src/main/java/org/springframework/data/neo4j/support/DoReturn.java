@@ -23,6 +23,8 @@ package org.springframework.data.neo4j.support;
  * @since 15.09.2010
  */
 public class DoReturn<T> {
+    // immutable, so reads of unset properties can share one instance
+    private static final DoReturn<Object> NULL = new DoReturn<Object>(null);
     private final T value;
 
     private DoReturn(T value) {
@@ -35,7 +37,9 @@ public class DoReturn<T> {
      * @param <T>
      * @return
      */
+    @SuppressWarnings("unchecked")
     public static <T> DoReturn<T> doReturn(T value) {
+        if (value == null) return (DoReturn<T>) NULL;
         return new DoReturn<T>(value);
     }
 
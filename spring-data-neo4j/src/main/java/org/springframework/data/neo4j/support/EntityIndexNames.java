@@ -0,0 +1,70 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support;
+
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.neo4j.annotation.Indexed;
+import org.springframework.data.neo4j.mapping.Neo4JMappingContext;
+import org.springframework.data.neo4j.mapping.Neo4JPersistentProperty;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Names of the indexes the instances of an entity type can be contained in, derived from the mapping metadata:
+ * the indexes of the @Indexed properties and the default index of the type (which also holds the foreign ids of
+ * partial entities). The type indexes of the type representation strategies are handled by the strategies.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+class EntityIndexNames {
+    private final Neo4JMappingContext mappingContext;
+    private final ConcurrentMap<Class<?>, Collection<String>> indexNames = new ConcurrentHashMap<Class<?>, Collection<String>>();
+
+    EntityIndexNames(Neo4JMappingContext mappingContext) {
+        this.mappingContext = mappingContext;
+    }
+
+    public Collection<String> getIndexNames(Class<?> type) {
+        Collection<String> names = indexNames.get(type);
+        if (names != null) return names;
+        names = resolveIndexNames(type);
+        final Collection<String> existing = indexNames.putIfAbsent(type, names);
+        return existing != null ? existing : names;
+    }
+
+    // same resolution as in IndexingPropertyFieldAccessorListenerFactory
+    private Collection<String> resolveIndexNames(final Class<?> type) {
+        final Set<String> names = new LinkedHashSet<String>();
+        names.add(Indexed.Name.get(type));
+        mappingContext.getPersistentEntity(type).doWithProperties(new PropertyHandler<Neo4JPersistentProperty>() {
+            @Override
+            public void doWithPersistentProperty(Neo4JPersistentProperty property) {
+                if (!property.isIndexed()) return;
+                final String indexName = property.getIndexInfo().getIndexName();
+                final String providedIndexName = indexName.isEmpty() ? null : indexName;
+                names.add(Indexed.Name.get(property.getIndexInfo().getLevel(), property.getOwner().getType(), providedIndexName, type));
+            }
+        });
+        return Collections.unmodifiableCollection(names);
+    }
+}
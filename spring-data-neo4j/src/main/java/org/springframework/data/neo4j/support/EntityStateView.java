@@ -0,0 +1,145 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support;
+
+import org.neo4j.graphdb.PropertyContainer;
+import org.springframework.data.neo4j.core.GraphBacked;
+
+import java.util.Iterator;
+
+/**
+ * Read-only view of the node or relationship of an entity. Properties are read directly from the graph, the entity
+ * itself is only created when {@link #toEntity()} is called.
+ * <p>
+ * The views returned by {@link #viewsOf(Iterable)} are reused for each element of an iteration, so a view must not
+ * be kept after the iterator moved on, keep its state or its entity instead.
+ *
+ * <pre>
+ * for (EntityStateView&lt;Relationship, Friendship&gt; friendship : EntityStateView.viewsOf(person.getFriendships())) {
+ *     total += (Integer) friendship.getProperty("years", 0);
+ * }
+ * </pre>
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public class EntityStateView<S extends PropertyContainer, T extends GraphBacked<S>> {
+    private final Class<T> targetType;
+    private final GraphDatabaseContext graphDatabaseContext;
+    private S state;
+    private T entity;
+
+    EntityStateView(Class<T> targetType, GraphDatabaseContext graphDatabaseContext) {
+        this.targetType = targetType;
+        this.graphDatabaseContext = graphDatabaseContext;
+    }
+
+    void moveTo(S state, T entity) {
+        this.state = state;
+        this.entity = entity;
+    }
+
+    /**
+     * @return views over the given entities; if they are created on the fly from nodes or relationships, like the
+     * values of {@link org.springframework.data.neo4j.annotation.RelatedToVia} fields or the results of
+     * findAllByTraversal, no entities are created while iterating the views
+     */
+    @SuppressWarnings("unchecked")
+    public static <S extends PropertyContainer, T extends GraphBacked<S>> Iterable<EntityStateView<S, T>> viewsOf(final Iterable<T> entities) {
+        if (entities instanceof GraphBackedEntityIterableWrapper) {
+            final GraphBackedEntityIterableWrapper<S, T> wrapper = (GraphBackedEntityIterableWrapper<S, T>) entities;
+            return new Iterable<EntityStateView<S, T>>() {
+                public Iterator<EntityStateView<S, T>> iterator() {
+                    final Iterator<S> states = wrapper.getStates().iterator();
+                    final EntityStateView<S, T> view = new EntityStateView<S, T>(wrapper.getTargetType(), wrapper.getGraphDatabaseContext());
+                    return new ViewIterator<S, S, T>(states, view) {
+                        protected void moveTo(S state) {
+                            view.moveTo(state, null);
+                        }
+                    };
+                }
+            };
+        }
+        return new Iterable<EntityStateView<S, T>>() {
+            public Iterator<EntityStateView<S, T>> iterator() {
+                final EntityStateView<S, T> view = new EntityStateView<S, T>(null, null);
+                return new ViewIterator<T, S, T>(entities.iterator(), view) {
+                    protected void moveTo(T entity) {
+                        view.moveTo(entity.getPersistentState(), entity);
+                    }
+                };
+            }
+        };
+    }
+
+    public S getState() {
+        return state;
+    }
+
+    public boolean hasProperty(String name) {
+        return state.hasProperty(name);
+    }
+
+    /**
+     * @return the property value as stored in the graph or null if it is not set
+     */
+    public Object getProperty(String name) {
+        return state.getProperty(name, null);
+    }
+
+    public Object getProperty(String name, Object defaultValue) {
+        return state.getProperty(name, defaultValue);
+    }
+
+    /**
+     * @return the entity for the current state, created on the first call
+     */
+    public T toEntity() {
+        if (entity == null) entity = graphDatabaseContext.createEntityFromState(state, targetType);
+        return entity;
+    }
+
+    @Override
+    public String toString() {
+        return "View of " + state;
+    }
+
+    private abstract static class ViewIterator<E, S extends PropertyContainer, T extends GraphBacked<S>> implements Iterator<EntityStateView<S, T>> {
+        private final Iterator<E> elements;
+        private final EntityStateView<S, T> view;
+
+        ViewIterator(Iterator<E> elements, EntityStateView<S, T> view) {
+            this.elements = elements;
+            this.view = view;
+        }
+
+        protected abstract void moveTo(E element);
+
+        public boolean hasNext() {
+            return elements.hasNext();
+        }
+
+        public EntityStateView<S, T> next() {
+            moveTo(elements.next());
+            return view;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("Views are read-only");
+        }
+    }
+}
@@ -25,15 +25,29 @@ import org.springframework.data.neo4j.core.GraphBacked;
  * Creates NodeEntities on the fly while iterating the Iterator from original iterable.
  */
 public class GraphBackedEntityIterableWrapper<STATE extends PropertyContainer, ENTITY extends GraphBacked<STATE>> extends IterableWrapper<ENTITY, STATE> {
+    private final Iterable<STATE> states;
     private final Class<ENTITY> targetType;
     private final GraphDatabaseContext graphDatabaseContext;
 
     public GraphBackedEntityIterableWrapper(Iterable<STATE> iterable, Class<ENTITY> targetType, final GraphDatabaseContext graphDatabaseContext) {
         super(iterable);
+        this.states = iterable;
         this.targetType = targetType;
         this.graphDatabaseContext = graphDatabaseContext;
     }
 
+    Iterable<STATE> getStates() {
+        return states;
+    }
+
+    Class<ENTITY> getTargetType() {
+        return targetType;
+    }
+
+    GraphDatabaseContext getGraphDatabaseContext() {
+        return graphDatabaseContext;
+    }
+
     @Override
     protected ENTITY underlyingObjectToObject(STATE s) {
         return graphDatabaseContext.createEntityFromState(s, targetType);
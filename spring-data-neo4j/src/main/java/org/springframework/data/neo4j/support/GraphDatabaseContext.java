@@ -27,12 +27,24 @@ import org.neo4j.kernel.AbstractGraphDatabase;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.neo4j.annotation.Indexed;
 import org.springframework.data.neo4j.core.*;
+import org.springframework.data.neo4j.mapping.Neo4JMappingContext;
+import org.springframework.data.neo4j.support.conversion.EntityResultConverter;
+import org.springframework.data.neo4j.support.query.CypherQueryExecutor;
+import org.springframework.data.neo4j.support.query.GremlinQueryEngine;
+import org.springframework.data.neo4j.support.query.QueryEngine;
+import org.springframework.data.neo4j.support.typerepresentation.NoopNodeTypeRepresentationStrategy;
+import org.springframework.data.neo4j.support.typerepresentation.NoopRelationshipTypeRepresentationStrategy;
+import org.springframework.util.ClassUtils;
 
 import javax.transaction.Status;
 import javax.transaction.SystemException;
 import javax.transaction.TransactionManager;
 import javax.validation.Validator;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Mediator class for the graph related services like the {@link GraphDatabaseService}, the used
@@ -57,6 +69,21 @@ public class GraphDatabaseContext {
 
     private RelationshipTypeRepresentationStrategy relationshipTypeRepresentationStrategy;
 
+    private volatile TransactionManager transactionManager;
+
+    private IndexChangeBuffer indexChangeBuffer;
+
+    private Neo4JMappingContext mappingContext;
+
+    private EntityIndexNames entityIndexNames;
+
+    private boolean removeFromAllIndexes;
+
+    private volatile CypherQueryExecutor cypherQueryExecutor;
+
+    private volatile QueryEngine<Object> gremlinQueryEngine;
+
+    private ExecutorService entityCreationExecutor;
 
 
     public <S extends PropertyContainer, T extends GraphBacked<S>> Index<S> getIndex(Class<T> type) {
@@ -69,6 +96,15 @@ public class GraphDatabaseContext {
 
 
     public <S extends PropertyContainer, T extends GraphBacked<S>> Index<S> getIndex(Class<T> type, String indexName, boolean fullText) {
+        flushIndexChanges();
+        return lookupIndex(type, indexName, fullText);
+    }
+
+    /**
+     * Like {@link #getIndex(Class, String, boolean)} but without writing the buffered index changes of the current
+     * transaction first, to be used for updating an index.
+     */
+    public <S extends PropertyContainer, T extends GraphBacked<S>> Index<S> lookupIndex(Class<T> type, String indexName, boolean fullText) {
         if (indexName==null) indexName = Indexed.Name.get(type);
         Map<String, String> config = fullText ? LuceneIndexImplementation.FULLTEXT_CONFIG : null;
         if (NodeBacked.class.isAssignableFrom(type)) return (Index<S>) getIndexManager().forNodes(indexName, config);
@@ -84,18 +120,35 @@ public class GraphDatabaseContext {
            return true; // assume always running tx (e.g. for REST or other remotes)
         }
         try {
-            final TransactionManager txManager = ((AbstractGraphDatabase) graphDatabaseService).getConfig().getTxModule().getTxManager();
-            return txManager.getStatus() != Status.STATUS_NO_TRANSACTION;
+            return getTransactionManager().getStatus() != Status.STATUS_NO_TRANSACTION;
         } catch (SystemException e) {
             log.error("Error accessing TransactionManager", e);
             return false;
         }
     }
 
+    // the transaction manager doesn't change for the lifetime of the database, so it is only looked up once
+    private TransactionManager getTransactionManager() {
+        TransactionManager txManager = transactionManager;
+        if (txManager == null) {
+            txManager = ((AbstractGraphDatabase) graphDatabaseService).getConfig().getTxModule().getTxManager();
+            transactionManager = txManager;
+        }
+        return txManager;
+    }
+
     public <T extends GraphBacked<? extends PropertyContainer>> ClosableIterable<T> findAll(final Class<T> entityClass) {
         return getTypeRepresentationStrategy(entityClass).findAll(entityClass);
     }
 
+    /**
+     * @return lazy Iterable over the nodes or relationships of all instances of the given type
+     */
+    @SuppressWarnings("unchecked")
+    public <S extends PropertyContainer, T extends GraphBacked<S>> ClosableIterable<S> findAllStates(final Class<T> entityClass) {
+        return (ClosableIterable<S>) getTypeRepresentationStrategy(entityClass).findAllStates(entityClass);
+    }
+
     public <T extends GraphBacked<? extends PropertyContainer>> long count(final Class<T> entityClass) {
         return getTypeRepresentationStrategy(entityClass).count(entityClass);
     }
@@ -111,6 +164,78 @@ public class GraphDatabaseContext {
         return getTypeRepresentationStrategy(state, type).createEntity(state, type);
     }
 
+    /**
+     * Creates the entities for the given states, keeping their order. The stored types of all states are resolved
+     * on the calling thread first. If an entity creation executor is configured and no transaction is running the
+     * entities are then instantiated in parallel, within a transaction the graph has to be accessed from the
+     * calling thread, so they are instantiated there.
+     */
+    public <S extends PropertyContainer, T extends GraphBacked<S>> List<T> createEntitiesFromStates(final List<S> states, Class<T> type) {
+        if (states.isEmpty()) return new ArrayList<T>();
+        if (states.contains(null)) throw new IllegalArgumentException("state has to be either a Node or Relationship, not null");
+        final TypeRepresentationStrategy<S, T> strategy = getTypeRepresentationStrategy(states.get(0), type);
+        final List<Class<T>> javaTypes = resolveJavaTypes(strategy, states, type);
+        if (javaTypes == null) {
+            final List<T> result = new ArrayList<T>(states.size());
+            for (S state : states) {
+                result.add(strategy.createEntity(state, type));
+            }
+            return result;
+        }
+        final ExecutorService executor = entityCreationExecutor;
+        if (executor == null || states.size() < 2 || transactionIsRunning()) {
+            return projectEntities(strategy, states, javaTypes, 0, states.size());
+        }
+        final int parts = Math.min(states.size(), Runtime.getRuntime().availableProcessors());
+        final List<Future<List<T>>> futures = new ArrayList<Future<List<T>>>(parts);
+        for (int part = 0; part < parts; part++) {
+            final int from = part * states.size() / parts;
+            final int to = (part + 1) * states.size() / parts;
+            futures.add(executor.submit(new Callable<List<T>>() {
+                public List<T> call() {
+                    return projectEntities(strategy, states, javaTypes, from, to);
+                }
+            }));
+        }
+        final List<T> result = new ArrayList<T>(states.size());
+        try {
+            for (Future<List<T>> future : futures) {
+                result.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while creating entities of " + type, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException("Error creating entities of " + type, e.getCause());
+        }
+        return result;
+    }
+
+    // null if the strategy doesn't store types
+    private <S extends PropertyContainer, T extends GraphBacked<S>> List<Class<T>> resolveJavaTypes(TypeRepresentationStrategy<S, T> strategy, List<S> states, Class<T> type) {
+        if (!storesTypes(strategy)) return null;
+        final List<Class<T>> javaTypes = new ArrayList<Class<T>>(states.size());
+        final Set<Class<?>> checkedTypes = new HashSet<Class<?>>();
+        for (S state : states) {
+            final Class<T> javaType = strategy.getJavaType(state);
+            if (javaType == null) throw new IllegalStateException("No type stored on " + state);
+            if (checkedTypes.add(javaType) && !type.isAssignableFrom(javaType)) {
+                throw new IllegalArgumentException(String.format("Entity is not of type: %s (was %s)", type, javaType));
+            }
+            javaTypes.add(javaType);
+        }
+        return javaTypes;
+    }
+
+    private <S extends PropertyContainer, T extends GraphBacked<S>> List<T> projectEntities(TypeRepresentationStrategy<S, T> strategy, List<S> states, List<Class<T>> javaTypes, int from, int to) {
+        final List<T> result = new ArrayList<T>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(strategy.projectEntity(states.get(i), javaTypes.get(i)));
+        }
+        return result;
+    }
+
     public <S extends PropertyContainer, T extends GraphBacked<S>> T projectTo(GraphBacked<S> entity, Class<T> targetType) {
         S state = entity.getPersistentState();
         return getTypeRepresentationStrategy(state, targetType).projectEntity(state, targetType);
@@ -120,44 +245,185 @@ public class GraphDatabaseContext {
         getTypeRepresentationStrategy(node, entityClass).postEntityCreation(node, entityClass);
     }
 
+    /**
+     * like {@link #postEntityCreation(PropertyContainer, Class)} for several states, the strategy is only looked up once
+     */
+    public <S extends PropertyContainer, T extends GraphBacked<S>> void postEntityCreationForAll(List<S> states, Class<T> entityClass) {
+        if (states.isEmpty()) return;
+        final TypeRepresentationStrategy<S, T> strategy = getTypeRepresentationStrategy(states.get(0), entityClass);
+        for (S state : states) {
+            strategy.postEntityCreation(state, entityClass);
+        }
+    }
+
 
     public void removeNodeEntity(NodeBacked entity) {
         Node node = entity.getPersistentState();
         if (node == null) return;
-        nodeTypeRepresentationStrategy.preEntityRemoval(node);
-        for (Relationship relationship : node.getRelationships()) {
-            removeRelationship(relationship);
-        }
-        removeFromIndexes(node);
-        node.delete();
+        final EntityRemoval removal = new EntityRemoval();
+        removal.addNode(node, entityType(entity));
+        removal.execute();
     }
 
     public void removeRelationshipEntity(RelationshipBacked entity) {
         Relationship relationship = entity.getPersistentState();
         if (relationship == null) return;
-        removeRelationship(relationship);
+        final EntityRemoval removal = new EntityRemoval();
+        removal.addRelationship(relationship, entityType(entity));
+        removal.execute();
+    }
+
+    /**
+     * Removes the given node- and relationship-entities, the index removals of all entities are grouped per index.
+     */
+    public void removeEntities(Iterable<? extends GraphBacked<?>> entities) {
+        final EntityRemoval removal = new EntityRemoval();
+        for (GraphBacked<?> entity : entities) {
+            if (entity instanceof NodeBacked) {
+                final Node node = ((NodeBacked) entity).getPersistentState();
+                if (node != null) removal.addNode(node, entityType(entity));
+            } else if (entity instanceof RelationshipBacked) {
+                final Relationship relationship = ((RelationshipBacked) entity).getPersistentState();
+                if (relationship != null) removal.addRelationship(relationship, entityType(entity));
+            }
+        }
+        removal.execute();
+    }
+
+    /**
+     * Removes the given nodes and relationships like the entities of the given type that are backed by them.
+     */
+    public void removeStates(Iterable<? extends PropertyContainer> states, Class<?> type) {
+        final EntityRemoval removal = new EntityRemoval();
+        for (PropertyContainer state : states) {
+            if (state instanceof Node) {
+                removal.addNode((Node) state, type);
+            } else if (state instanceof Relationship) {
+                removal.addRelationship((Relationship) state, type);
+            }
+        }
+        removal.execute();
+    }
+
+    private Class<?> entityType(GraphBacked<?> entity) {
+        return ClassUtils.getUserClass(entity.getClass());
     }
 
-    private void removeRelationship(Relationship relationship) {
-        relationshipTypeRepresentationStrategy.preEntityRemoval(relationship);
-        removeFromIndexes(relationship);
-        relationship.delete();
+    // the noop strategies keep no type information, their getJavaType is not supported
+    private static boolean storesTypes(TypeRepresentationStrategy<?, ?> strategy) {
+        return !(strategy instanceof NoopNodeTypeRepresentationStrategy || strategy instanceof NoopRelationshipTypeRepresentationStrategy);
     }
 
-    private void removeFromIndexes(Node node) {
-        IndexManager indexManager = getIndexManager();
-        for (String indexName : indexManager.nodeIndexNames()) {
-            indexManager.forNodes(indexName).remove(node);
+    /**
+     * @return the type stored for the state, it decides the indexes the state is contained in even if the entity was
+     * projected to another type; the given entity type if no type is stored
+     */
+    private <S extends PropertyContainer> Class<?> storedType(TypeRepresentationStrategy<S, ?> strategy, S state, Class<?> entityType) {
+        if (!storesTypes(strategy)) return entityType;
+        try {
+            final Class<?> storedType = strategy.getJavaType(state);
+            return storedType != null ? storedType : entityType;
+        } catch (IllegalArgumentException e) {
+            return entityType; // not attached to a type
+        } catch (IllegalStateException e) {
+            return entityType; // stored type can't be loaded
         }
     }
 
-    private void removeFromIndexes(Relationship relationship) {
-        IndexManager indexManager = getIndexManager();
-        for (String indexName : indexManager.relationshipIndexNames()) {
-            indexManager.forRelationships(indexName).remove(relationship);
+    /**
+     * @return names of the indexes the given entity type can be contained in, or all indexes if the type is not known,
+     * there is no mapping metadata or all indexes should be checked
+     */
+    private Iterable<String> indexNamesToCheck(Class<?> type, boolean forNodes) {
+        if (type == null || entityIndexNames == null || removeFromAllIndexes) {
+            return Arrays.asList(forNodes ? getIndexManager().nodeIndexNames() : getIndexManager().relationshipIndexNames());
+        }
+        return entityIndexNames.getIndexNames(type);
+    }
+
+    /**
+     * Collects the entities to remove together with the indexes they have to be removed from, so that each
+     * index is only looked up once.
+     */
+    private class EntityRemoval {
+        private final Set<Node> nodes = new LinkedHashSet<Node>();
+        private final Set<Relationship> relationships = new LinkedHashSet<Relationship>();
+        private final Map<String, Collection<Node>> nodesByIndex = new LinkedHashMap<String, Collection<Node>>();
+        private final Map<String, Collection<Relationship>> relationshipsByIndex = new LinkedHashMap<String, Collection<Relationship>>();
+
+        void addNode(Node node, Class<?> entityType) {
+            if (!nodes.add(node)) return;
+            // resolved before the type information is removed
+            final Class<?> type = storedType(nodeTypeRepresentationStrategy, node, entityType);
+            nodeTypeRepresentationStrategy.preEntityRemoval(node);
+            for (Relationship relationship : node.getRelationships()) {
+                // the types of plain relationships are not known, they are checked against all relationship indexes
+                addRelationship(relationship, null);
+            }
+            getIndexChangeBuffer().discard(node);
+            for (String indexName : indexNamesToCheck(type, true)) {
+                add(nodesByIndex, indexName, node);
+            }
+        }
+
+        void addRelationship(Relationship relationship, Class<?> entityType) {
+            if (!relationships.add(relationship)) return;
+            final Class<?> type = entityType == null ? null : storedType(relationshipTypeRepresentationStrategy, relationship, entityType);
+            relationshipTypeRepresentationStrategy.preEntityRemoval(relationship);
+            getIndexChangeBuffer().discard(relationship);
+            for (String indexName : indexNamesToCheck(type, false)) {
+                add(relationshipsByIndex, indexName, relationship);
+            }
+        }
+
+        private <T> void add(Map<String, Collection<T>> entitiesByIndex, String indexName, T entity) {
+            Collection<T> entities = entitiesByIndex.get(indexName);
+            if (entities == null) {
+                entities = new ArrayList<T>();
+                entitiesByIndex.put(indexName, entities);
+            }
+            entities.add(entity);
+        }
+
+        void execute() {
+            final IndexManager indexManager = getIndexManager();
+            for (Map.Entry<String, Collection<Relationship>> entry : relationshipsByIndex.entrySet()) {
+                if (!indexManager.existsForRelationships(entry.getKey())) continue;
+                final Index<Relationship> index = indexManager.forRelationships(entry.getKey());
+                for (Relationship relationship : entry.getValue()) {
+                    index.remove(relationship);
+                }
+            }
+            for (Map.Entry<String, Collection<Node>> entry : nodesByIndex.entrySet()) {
+                if (!indexManager.existsForNodes(entry.getKey())) continue;
+                final Index<Node> index = indexManager.forNodes(entry.getKey());
+                for (Node node : entry.getValue()) {
+                    index.remove(node);
+                }
+            }
+            for (Relationship relationship : relationships) {
+                relationship.delete();
+            }
+            for (Node node : nodes) {
+                node.delete();
+            }
         }
     }
 
+    /**
+     * @return buffer for the index updates of indexed properties, written before the commit of the current transaction
+     */
+    public IndexChangeBuffer getIndexChangeBuffer() {
+        return indexChangeBuffer;
+    }
+
+    /**
+     * writes the buffered index updates of the current transaction, so that index lookups see them
+     */
+    public void flushIndexChanges() {
+        if (indexChangeBuffer != null) indexChangeBuffer.flush();
+    }
+
     private IndexManager getIndexManager() {
         return graphDatabaseService.index();
     }
@@ -246,6 +512,11 @@ public class GraphDatabaseContext {
 
 	public void setGraphDatabaseService(GraphDatabaseService graphDatabaseService) {
 		this.graphDatabaseService = graphDatabaseService;
+		this.transactionManager = null;
+		if (this.indexChangeBuffer != null) this.indexChangeBuffer.unregister();
+		this.indexChangeBuffer = new IndexChangeBuffer(graphDatabaseService);
+		this.cypherQueryExecutor = null;
+		this.gremlinQueryEngine = null;
 	}
 
     public NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy() {
@@ -270,8 +541,73 @@ public class GraphDatabaseContext {
 
 	public void setConversionService(ConversionService conversionService) {
 		this.conversionService = conversionService;
+		this.cypherQueryExecutor = null;
+		this.gremlinQueryEngine = null;
 	}
 
+    /**
+     * @return the query executor shared by all cypher queries of the entities and repositories, it is created once
+     * for the configured database and conversion service
+     */
+    public CypherQueryExecutor getCypherQueryExecutor() {
+        CypherQueryExecutor executor = cypherQueryExecutor;
+        if (executor == null) {
+            executor = new CypherQueryExecutor(this);
+            cypherQueryExecutor = executor;
+        }
+        return executor;
+    }
+
+    /**
+     * @return the gremlin query engine shared by the repositories, converting results to entities, its script
+     * engines and compiled scripts are reused across queries
+     */
+    public QueryEngine<Object> getGremlinQueryEngine() {
+        QueryEngine<Object> engine = gremlinQueryEngine;
+        if (engine == null) {
+            engine = new GremlinQueryEngine(graphDatabaseService, new EntityResultConverter(this), indexChangeBuffer);
+            gremlinQueryEngine = engine;
+        }
+        return engine;
+    }
+
+    public ExecutorService getEntityCreationExecutor() {
+        return entityCreationExecutor;
+    }
+
+    /**
+     * @param entityCreationExecutor used by {@link #createEntitiesFromStates(List, Class)} to instantiate entities in
+     * parallel outside of transactions, by default they are instantiated on the calling thread
+     */
+    public void setEntityCreationExecutor(ExecutorService entityCreationExecutor) {
+        this.entityCreationExecutor = entityCreationExecutor;
+    }
+
+    public Neo4JMappingContext getMappingContext() {
+        return mappingContext;
+    }
+
+    /**
+     * @param mappingContext mapping metadata used to remove entities only from the indexes their type can be contained in,
+     * without it removed entities are removed from all indexes
+     */
+    public void setMappingContext(Neo4JMappingContext mappingContext) {
+        this.mappingContext = mappingContext;
+        this.entityIndexNames = mappingContext != null ? new EntityIndexNames(mappingContext) : null;
+    }
+
+    public boolean isRemoveFromAllIndexes() {
+        return removeFromAllIndexes;
+    }
+
+    /**
+     * @param removeFromAllIndexes remove deleted entities from all indexes of the database instead of just the ones
+     * known from the mapping metadata, for stores with entities that were added to other indexes manually
+     */
+    public void setRemoveFromAllIndexes(boolean removeFromAllIndexes) {
+        this.removeFromAllIndexes = removeFromAllIndexes;
+    }
+
     public Validator getValidator() {
         return validator;
     }
@@ -0,0 +1,227 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+import org.neo4j.graphdb.index.Index;
+import org.neo4j.kernel.AbstractGraphDatabase;
+
+import javax.transaction.SystemException;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the index updates of indexed entity properties per transaction and writes them right before the commit.
+ * Only the last value per entity, index and key is written, so setting an indexed property several times within
+ * one transaction results in a single index operation.
+ * <p>
+ * Pending changes of the current transaction are written early by {@link #flush()}, which
+ * {@link GraphDatabaseContext} calls before handing out an index and the query engines call before running a query,
+ * so index lookups still see the changes of their own transaction. Databases without transaction event support
+ * (e.g. remote ones) are written through immediately. The owner calls {@link #unregister()} when the buffer is no
+ * longer used.
+ *
+ * @author Michael Hunger
+ * @since 17.10.11
+ */
+public class IndexChangeBuffer {
+    private final GraphDatabaseService graphDatabaseService;
+    private final boolean buffering;
+    private final Flusher flusher = new Flusher();
+    private final ThreadLocal<PendingChanges> pendingChanges = new ThreadLocal<PendingChanges>();
+    private volatile TransactionManager transactionManager;
+
+    public IndexChangeBuffer(GraphDatabaseService graphDatabaseService) {
+        this.graphDatabaseService = graphDatabaseService;
+        this.buffering = graphDatabaseService instanceof AbstractGraphDatabase;
+        if (buffering) {
+            graphDatabaseService.registerTransactionEventHandler(flusher);
+        }
+    }
+
+    /**
+     * removes the transaction event handler of this buffer from the database, pending changes are not written anymore
+     */
+    public void unregister() {
+        if (!buffering) return;
+        try {
+            graphDatabaseService.unregisterTransactionEventHandler(flusher);
+        } catch (IllegalStateException e) {
+            // handler already removed or database shut down
+        }
+        pendingChanges.remove();
+    }
+
+    /**
+     * records that the entity has to be indexed with the given value, null removes it from the index for that key
+     */
+    public <T extends PropertyContainer> void update(Index<T> index, T state, String key, Object value) {
+        final Transaction tx = buffering ? currentTransaction() : null;
+        if (tx == null) {
+            write(index, state, key, value);
+            return;
+        }
+        PendingChanges changes = pendingChanges.get();
+        if (changes == null || !changes.belongsTo(tx)) {
+            changes = new PendingChanges(tx);
+            pendingChanges.set(changes);
+        }
+        changes.put(new IndexEntry(index, state, key), value);
+    }
+
+    /**
+     * drops the pending changes of an entity that is going to be deleted
+     */
+    public void discard(PropertyContainer state) {
+        final PendingChanges changes = currentChanges();
+        if (changes == null) return;
+        for (Iterator<IndexEntry> it = changes.values.keySet().iterator(); it.hasNext(); ) {
+            if (it.next().state.equals(state)) it.remove();
+        }
+    }
+
+    /**
+     * writes the pending changes of the current transaction
+     */
+    public void flush() {
+        final PendingChanges changes = currentChanges();
+        if (changes == null) return;
+        pendingChanges.remove();
+        changes.writeAll(null);
+    }
+
+    private PendingChanges currentChanges() {
+        final PendingChanges changes = pendingChanges.get();
+        if (changes == null) return null;
+        if (changes.belongsTo(currentTransaction())) return changes;
+        pendingChanges.remove();
+        return null;
+    }
+
+    private Transaction currentTransaction() {
+        if (!buffering) return null;
+        try {
+            if (transactionManager == null) {
+                transactionManager = ((AbstractGraphDatabase) graphDatabaseService).getConfig().getTxModule().getTxManager();
+            }
+            return transactionManager.getTransaction();
+        } catch (SystemException e) {
+            throw new IllegalStateException("Error accessing the current transaction", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void write(Index index, PropertyContainer state, String key, Object value) {
+        if (value == null) {
+            index.remove(state, key);
+        } else {
+            index.add(state, key, value);
+        }
+    }
+
+    private static class IndexEntry {
+        private final Index<?> index;
+        private final PropertyContainer state;
+        private final String key;
+
+        IndexEntry(Index<?> index, PropertyContainer state, String key) {
+            this.index = index;
+            this.state = state;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IndexEntry)) return false;
+            final IndexEntry other = (IndexEntry) o;
+            return key.equals(other.key) && state.equals(other.state) && index.getName().equals(other.index.getName());
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * index.getName().hashCode() + state.hashCode()) + key.hashCode();
+        }
+    }
+
+    private static class PendingChanges {
+        private final Transaction transaction;
+        private final Map<IndexEntry, Object> values = new LinkedHashMap<IndexEntry, Object>();
+
+        PendingChanges(Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        boolean belongsTo(Transaction tx) {
+            return transaction.equals(tx);
+        }
+
+        void put(IndexEntry entry, Object value) {
+            values.remove(entry); // keep the order of the last update
+            values.put(entry, value);
+        }
+
+        void writeAll(Set<PropertyContainer> deleted) {
+            for (Map.Entry<IndexEntry, Object> change : values.entrySet()) {
+                final IndexEntry entry = change.getKey();
+                if (deleted != null && deleted.contains(entry.state)) continue;
+                write(entry.index, entry.state, entry.key, change.getValue());
+            }
+        }
+    }
+
+    private class Flusher implements TransactionEventHandler<Object> {
+        @Override
+        public Object beforeCommit(TransactionData data) throws Exception {
+            final PendingChanges changes = pendingChanges.get();
+            if (changes == null) return null;
+            pendingChanges.remove();
+            changes.writeAll(deletedEntities(data));
+            return null;
+        }
+
+        private Set<PropertyContainer> deletedEntities(TransactionData data) {
+            final Set<PropertyContainer> deleted = new HashSet<PropertyContainer>();
+            for (Node node : data.deletedNodes()) {
+                deleted.add(node);
+            }
+            for (Relationship relationship : data.deletedRelationships()) {
+                deleted.add(relationship);
+            }
+            return deleted;
+        }
+
+        @Override
+        public void afterCommit(TransactionData data, Object state) {
+        }
+
+        @Override
+        public void afterRollback(TransactionData data, Object state) {
+            pendingChanges.remove();
+        }
+    }
+}
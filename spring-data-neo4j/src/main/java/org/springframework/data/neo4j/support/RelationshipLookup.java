@@ -0,0 +1,60 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+
+import java.util.Iterator;
+
+/**
+ * Finds the relationship between two nodes. The relationships of both nodes are read alternately, as a connecting
+ * relationship shows up on both sides the lookup ends when the node with fewer relationships is exhausted, so the
+ * cost depends on the lower degree and not on the degree of the start node.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public class RelationshipLookup {
+
+    /**
+     * @param direction of the relationship seen from the start node
+     * @return a relationship of the given type between start and end or null
+     */
+    public static Relationship findRelationship(Node start, Node end, RelationshipType type, Direction direction) {
+        final Iterator<Relationship> fromStart = start.getRelationships(type, direction).iterator();
+        if (start.equals(end)) return findOtherNode(fromStart, start, end);
+        final Iterator<Relationship> fromEnd = end.getRelationships(type, direction.reverse()).iterator();
+        while (fromStart.hasNext() && fromEnd.hasNext()) {
+            final Relationship relationship = fromStart.next();
+            if (relationship.getOtherNode(start).equals(end)) return relationship;
+            final Relationship reverse = fromEnd.next();
+            if (reverse.getOtherNode(end).equals(start)) return reverse;
+        }
+        return null;
+    }
+
+    private static Relationship findOtherNode(Iterator<Relationship> relationships, Node node, Node other) {
+        while (relationships.hasNext()) {
+            final Relationship relationship = relationships.next();
+            if (relationship.getOtherNode(node).equals(other)) return relationship;
+        }
+        return null;
+    }
+}
@@ -16,6 +16,10 @@
 
 package org.springframework.data.neo4j.support.conversion;
 
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Relationship;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.neo4j.core.EntityPath;
 import org.springframework.data.neo4j.core.NodeBacked;
@@ -24,6 +28,9 @@ import org.springframework.data.neo4j.conversion.DefaultConverter;
 import org.springframework.data.neo4j.support.GraphDatabaseContext;
 import org.springframework.data.neo4j.support.path.ConvertingEntityPath;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author mh
  * @since 28.06.11
@@ -37,24 +44,64 @@ public class EntityResultConverter<T,R> extends DefaultConverter<T,R> {
         conversionService = this.ctx.getConversionService();
     }
 
+    /**
+     * creates the entities of all values together, see {@link GraphDatabaseContext#createEntitiesFromStates}
+     */
+    @Override
+    public List<R> convertAll(List<T> values, Class<R> type) {
+        final boolean nodes = NodeBacked.class.isAssignableFrom(type);
+        if (!nodes && !RelationshipBacked.class.isAssignableFrom(type)) return super.convertAll(values, type);
+        final List<PropertyContainer> states = new ArrayList<PropertyContainer>(values.size());
+        for (T value : values) {
+            final Object singleValue = value == null ? null : extractValue(value);
+            if (singleValue == null || type.isInstance(singleValue)) return super.convertAll(values, type);
+            final PropertyContainer state = nodes ? toNode(singleValue, singleValue.getClass()) : toRelationship(singleValue, singleValue.getClass());
+            if (state == null) return super.convertAll(values, type);
+            states.add(state);
+        }
+        return (List<R>) ctx.createEntitiesFromStates((List) states, (Class) type);
+    }
+
     @Override
-    protected Object doConvert(Object value, Class<?> sourceType, Class targetType) {
+    protected Conversion createConversion(final Class<?> sourceType, final Class targetType) {
         if (NodeBacked.class.isAssignableFrom(targetType)) {
-            return ctx.createEntityFromState(toNode(value,sourceType),targetType);
+            final Conversion nodeConversion = nodeConversion(sourceType);
+            if (nodeConversion == null) return null;
+            return new Conversion() {
+                public Object convert(Object value) {
+                    return ctx.createEntityFromState((Node) nodeConversion.convert(value), targetType);
+                }
+            };
         }
         if (RelationshipBacked.class.isAssignableFrom(targetType)) {
-            return ctx.createEntityFromState(toRelationship(value,sourceType),targetType);
+            final Conversion relationshipConversion = relationshipConversion(sourceType);
+            if (relationshipConversion == null) return null;
+            return new Conversion() {
+                public Object convert(Object value) {
+                    return ctx.createEntityFromState((Relationship) relationshipConversion.convert(value), targetType);
+                }
+            };
         }
         if (EntityPath.class.isAssignableFrom(targetType)) {
-            return new ConvertingEntityPath(ctx,toPath(value,sourceType));
+            final Conversion pathConversion = pathConversion(sourceType);
+            if (pathConversion == null) return null;
+            return new Conversion() {
+                public Object convert(Object value) {
+                    return new ConvertingEntityPath(ctx, (Path) pathConversion.convert(value));
+                }
+            };
         }
-        final Object result = super.doConvert(value, sourceType, targetType);
+        final Conversion conversion = super.createConversion(sourceType, targetType);
 
-        if (result!=null) return result;
+        if (conversion != null) return conversion;
 
         if (conversionService.canConvert(sourceType, targetType)) {
-            return conversionService.convert(value,targetType);
+            return new Conversion() {
+                public Object convert(Object value) {
+                    return conversionService.convert(value, targetType);
+                }
+            };
         }
-        return result;
+        return null;
     }
 }
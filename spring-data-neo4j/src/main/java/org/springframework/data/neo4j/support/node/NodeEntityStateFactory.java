@@ -29,6 +29,8 @@ import org.springframework.data.neo4j.support.GraphDatabaseContext;
 import javax.annotation.PostConstruct;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceUnitUtil;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class NodeEntityStateFactory {
 
@@ -42,11 +44,13 @@ public class NodeEntityStateFactory {
 
     private Neo4JMappingContext mappingContext;
 
+    private final ConcurrentMap<Class<?>, EntityTypeInfo> typeInfos = new ConcurrentHashMap<Class<?>, EntityTypeInfo>();
+
     public EntityState<NodeBacked,Node> getEntityState(final NodeBacked entity) {
         final Class<? extends NodeBacked> entityType = entity.getClass();
-        final NodeEntity graphEntityAnnotation = entityType.getAnnotation(NodeEntity.class); // todo cache ??
-        final Neo4JPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityType);
-        if (graphEntityAnnotation.partial()) {
+        final EntityTypeInfo typeInfo = getTypeInfo(entityType);
+        final Neo4JPersistentEntity<?> persistentEntity = typeInfo.persistentEntity;
+        if (typeInfo.partial) {
             final PartialNodeEntityState<NodeBacked> partialNodeEntityState = new PartialNodeEntityState<NodeBacked>(null, entity, entityType, graphDatabaseContext, getPersistenceUnitUtils(), delegatingFieldAccessorFactory, (Neo4JPersistentEntity<NodeBacked>) persistentEntity);
             return new DetachedEntityState<NodeBacked, Node>(partialNodeEntityState, graphDatabaseContext) {
                 @Override
@@ -61,6 +65,24 @@ public class NodeEntityStateFactory {
         }
     }
 
+    private EntityTypeInfo getTypeInfo(Class<? extends NodeBacked> entityType) {
+        EntityTypeInfo typeInfo = typeInfos.get(entityType);
+        if (typeInfo != null) return typeInfo;
+        typeInfo = new EntityTypeInfo(entityType.getAnnotation(NodeEntity.class).partial(), mappingContext.getPersistentEntity(entityType));
+        final EntityTypeInfo existing = typeInfos.putIfAbsent(entityType, typeInfo);
+        return existing != null ? existing : typeInfo;
+    }
+
+    private static class EntityTypeInfo {
+        private final boolean partial;
+        private final Neo4JPersistentEntity<?> persistentEntity;
+
+        EntityTypeInfo(boolean partial, Neo4JPersistentEntity<?> persistentEntity) {
+            this.partial = partial;
+            this.persistentEntity = persistentEntity;
+        }
+    }
+
     private PersistenceUnitUtil getPersistenceUnitUtils() {
         if (entityManagerFactory == null) return null;
         return entityManagerFactory.getPersistenceUnitUtil();
@@ -85,6 +107,7 @@ public class NodeEntityStateFactory {
 
     public void setMappingContext(Neo4JMappingContext mappingContext) {
         this.mappingContext = mappingContext;
+        typeInfos.clear();
     }
 
     @PostConstruct
@@ -87,7 +87,7 @@ public class PartialNodeEntityState<ENTITY extends NodeBacked> extends DefaultEn
 
     @Override
     public boolean isWritable(Field field) {
-        final FieldAccessor<ENTITY> accessor = accessorFor(property(field));
+        final FieldAccessor<ENTITY> accessor = accessorFor(field);
         if (accessor == null) return false; // difference to default behaviour, we don't care for non-managed fields here
         return accessor.isWriteable(entity);
     }
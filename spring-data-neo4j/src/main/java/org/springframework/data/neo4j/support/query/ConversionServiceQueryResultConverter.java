@@ -31,9 +31,13 @@ public class ConversionServiceQueryResultConverter<R> extends DefaultConverter<O
     }
 
     @Override
-    protected Object doConvert(Object value, Class<?> sourceType, Class type) {
+    protected Conversion createConversion(Class<?> sourceType, final Class type) {
         if (conversionService.canConvert(sourceType, type)) {
-            return conversionService.convert(value, type);
+            return new Conversion() {
+                public Object convert(Object value) {
+                    return conversionService.convert(value, type);
+                }
+            };
         }
         return null;
     }
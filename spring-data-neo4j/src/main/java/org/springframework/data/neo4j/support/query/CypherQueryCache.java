@@ -0,0 +1,111 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.query;
+
+import org.neo4j.cypher.commands.Query;
+import org.neo4j.cypher.javacompat.CypherParser;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of parsed cypher queries, keyed by the statement text. The parsed queries are immutable
+ * and can be executed concurrently. Each {@link CypherQueryEngine} owns its cache unless it is given one. Statements
+ * with substituted parameter values are parsed by {@link #parseUncached(String)}, so a finder called with many
+ * distinct values doesn't flood the cache.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public class CypherQueryCache {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final Map<String, Query> queries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CypherQueryCache(final int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("Cache size must be positive, was " + maxSize);
+        this.queries = new LinkedHashMap<String, Query>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Query> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the cached query for the statement, parsing it on a cache miss
+     */
+    public Query parse(String statement) {
+        synchronized (queries) {
+            final Query query = queries.get(statement);
+            if (query != null) {
+                hits.incrementAndGet();
+                return query;
+            }
+        }
+        misses.incrementAndGet();
+        final Query query = parseStatement(statement);
+        synchronized (queries) {
+            queries.put(statement, query);
+        }
+        return query;
+    }
+
+    /**
+     * @return the parsed statement, which is not added to the cache
+     */
+    public Query parseUncached(String statement) {
+        return parseStatement(statement);
+    }
+
+    private Query parseStatement(String statement) {
+        try {
+            return new CypherParser().parse(statement);
+        } catch (Exception e) {
+            throw new InvalidDataAccessResourceUsageException("Error parsing statement " + statement, e);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (queries) {
+            return queries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (queries) {
+            queries.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CypherQueryCache{size=%d, hits=%d, misses=%d}", size(), getHits(), getMisses());
+    }
+}
@@ -17,7 +17,6 @@
 package org.springframework.data.neo4j.support.query;
 
 import org.neo4j.cypher.commands.Query;
-import org.neo4j.cypher.javacompat.CypherParser;
 import org.neo4j.cypher.javacompat.ExecutionEngine;
 import org.neo4j.cypher.javacompat.ExecutionResult;
 import org.neo4j.graphdb.GraphDatabaseService;
@@ -26,6 +25,7 @@ import org.springframework.data.neo4j.conversion.DefaultConverter;
 import org.springframework.data.neo4j.conversion.QueryResult;
 import org.springframework.data.neo4j.conversion.QueryResultBuilder;
 import org.springframework.data.neo4j.conversion.ResultConverter;
+import org.springframework.data.neo4j.support.IndexChangeBuffer;
 
 import java.util.Map;
 
@@ -33,6 +33,8 @@ public class CypherQueryEngine implements QueryEngine<Map<String,Object>> {
 
     final ExecutionEngine executionEngine;
     private ResultConverter resultConverter;
+    private final CypherQueryCache queryCache;
+    private final IndexChangeBuffer indexChangeBuffer;
 
     public CypherQueryEngine(GraphDatabaseService graphDatabaseService) {
         this(graphDatabaseService, new DefaultConverter());
@@ -40,25 +42,44 @@ public class CypherQueryEngine implements QueryEngine<Map<String,Object>> {
 
 
     public CypherQueryEngine(GraphDatabaseService graphDatabaseService, ResultConverter resultConverter) {
+        this(graphDatabaseService, resultConverter, null);
+    }
+
+    public CypherQueryEngine(GraphDatabaseService graphDatabaseService, ResultConverter resultConverter, CypherQueryCache queryCache) {
+        this(graphDatabaseService, resultConverter, queryCache, null);
+    }
+
+    /**
+     * @param queryCache optional, the engine creates its own cache if none is given
+     * @param indexChangeBuffer optional, its pending index changes are written before each query
+     */
+    public CypherQueryEngine(GraphDatabaseService graphDatabaseService, ResultConverter resultConverter, CypherQueryCache queryCache, IndexChangeBuffer indexChangeBuffer) {
         this.resultConverter = resultConverter != null ? resultConverter : new DefaultConverter();
         this.executionEngine = new ExecutionEngine(graphDatabaseService);
+        this.queryCache = queryCache != null ? queryCache : new CypherQueryCache(CypherQueryCache.DEFAULT_MAX_SIZE);
+        this.indexChangeBuffer = indexChangeBuffer;
+    }
+
+    public CypherQueryCache getQueryCache() {
+        return queryCache;
     }
 
     @Override
     public QueryResult<Map<String, Object>> query(String statement, Map<String, Object> params) {
         try {
+            if (indexChangeBuffer != null) indexChangeBuffer.flush();
             String parametrizedQuery = QueryResultBuilder.replaceParams(statement,params);
-            ExecutionResult result = parseAndExecuteQuery(parametrizedQuery);
+            // statements with substituted values are not cached, each distinct value would add an entry
+            final Query query = parametrizedQuery.equals(statement) ? queryCache.parse(statement) : queryCache.parseUncached(parametrizedQuery);
+            ExecutionResult result = executeQuery(query, parametrizedQuery);
             return new QueryResultBuilder<Map<String,Object>>(result,resultConverter);
         } catch (Exception e) {
             throw new InvalidDataAccessResourceUsageException("Error executing statement " + statement, e);
         }
     }
 
-    private ExecutionResult parseAndExecuteQuery(String statement) {
+    private ExecutionResult executeQuery(Query query, String statement) {
         try {
-            CypherParser parser = new CypherParser();
-            Query query = parser.parse(statement);
             return executionEngine.execute(query);
         } catch(Exception e) {
             throw new InvalidDataAccessResourceUsageException("Error executing statement " + statement, e);
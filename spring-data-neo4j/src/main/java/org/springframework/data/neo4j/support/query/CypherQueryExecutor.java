@@ -32,7 +32,8 @@ public class CypherQueryExecutor implements QueryOperations<Map<String,Object>>
 
     public CypherQueryExecutor(GraphDatabaseContext ctx) {
         EntityResultConverter converter = new EntityResultConverter(ctx);
-        queryEngine = new CypherQueryEngine(ctx.getGraphDatabaseService(), converter);
+        // queries may start from index lookups, which have to see the buffered index changes
+        queryEngine = new CypherQueryEngine(ctx.getGraphDatabaseService(), converter, null, ctx.getIndexChangeBuffer());
     }
 
     public Iterable<Map<String, Object>> queryForList(String statement, Map<String,Object> params) {
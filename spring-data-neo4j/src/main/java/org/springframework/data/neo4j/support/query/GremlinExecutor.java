@@ -29,40 +29,56 @@ import javax.script.*;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
-@SuppressWarnings("ALL")
+/**
+ * Executes gremlin scripts with a bounded pool of script engines, each engine keeps the scripts it compiled so that
+ * repeated statements are not compiled again. The graph wrapper bound as "g" is shared by all executions.
+ */
 public class GremlinExecutor {
 
+    /**
+     * number of scripts compiled by an engine before it is replaced, as each compiled script adds classes to it
+     */
     public static final int REFRESH_ENGINE_COUNT = 10000;
+    public static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    public static final int MAX_COMPILED_SCRIPTS = 500;
     private final String g = "g";
-    private volatile ScriptEngine engine;
 
-    private ScriptEngine createScriptEngine() {
-        return new ScriptEngineManager().getEngineByName("gremlin");
-    }
-
-    private static final AtomicInteger executionCount = new AtomicInteger();
+    private final BlockingQueue<PooledEngine> engines;
     private final GraphDatabaseService graphDatabaseService;
+    private volatile Neo4jGraph graph;
 
     public GremlinExecutor(GraphDatabaseService graphDatabaseService) {
+        this(graphDatabaseService, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * @param poolSize number of idle engines kept for reuse, if all of them are in use additional engines are created
+     * and dropped afterwards
+     */
+    public GremlinExecutor(GraphDatabaseService graphDatabaseService, int poolSize) {
+        if (poolSize < 1) throw new IllegalArgumentException("Pool size must be at least 1 but was " + poolSize);
         this.graphDatabaseService = graphDatabaseService;
+        this.engines = new ArrayBlockingQueue<PooledEngine>(poolSize);
     }
 
     public Iterable<Object> query(String statement, Map<String,Object> params) {
+        final PooledEngine engine = borrowEngine();
         try {
-            final Bindings bindings = createBindings(params);
-            final ScriptEngine engine = engine();
-            final Object result = engine.eval(statement, bindings);
+            final Object result = engine.eval(statement, createBindings(params));
             return getRepresentation(result);
         } catch (final ScriptException e) {
             throw new RuntimeException("Error executing statement " + statement, e);
+        } finally {
+            releaseEngine(engine);
         }
     }
 
     private Bindings createBindings(Map<String, Object> params) {
         final Bindings bindings = new SimpleBindings();
-        bindings.put(g, new Neo4jGraph(graphDatabaseService));
+        bindings.put(g, graph());
         if (params==null) return bindings;
         for (Map.Entry<String, Object> entry : params.entrySet()) {
             bindings.put(entry.getKey(),entry.getValue());
@@ -70,22 +86,70 @@ public class GremlinExecutor {
         return bindings;
     }
 
-    private ScriptEngine engine() {
-        if (engine == null || executionCount.incrementAndGet() > REFRESH_ENGINE_COUNT) {
-            executionCount.set(0);
-            this.engine = new ScriptEngineManager().getEngineByName("gremlin");
+    private Neo4jGraph graph() {
+        Neo4jGraph result = graph;
+        if (result == null) {
+            result = new Neo4jGraph(graphDatabaseService);
+            graph = result;
         }
-        return this.engine;
+        return result;
+    }
+
+    private PooledEngine borrowEngine() {
+        final PooledEngine engine = engines.poll();
+        if (engine != null) return engine;
+        return new PooledEngine(new ScriptEngineManager().getEngineByName("gremlin"));
+    }
+
+    private void releaseEngine(PooledEngine engine) {
+        if (engine.isExhausted()) return;
+        engines.offer(engine);
     }
 
+    /**
+     * Script engine with the scripts it compiled, only used by one thread at a time.
+     */
+    private static class PooledEngine {
+        private final ScriptEngine engine;
+        private final Map<String, CompiledScript> scripts = new LinkedHashMap<String, CompiledScript>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+                return size() > MAX_COMPILED_SCRIPTS;
+            }
+        };
+        private int compilations;
+
+        PooledEngine(ScriptEngine engine) {
+            this.engine = engine;
+        }
+
+        Object eval(String statement, Bindings bindings) throws ScriptException {
+            if (!(engine instanceof Compilable)) {
+                compilations++;
+                return engine.eval(statement, bindings);
+            }
+            CompiledScript script = scripts.get(statement);
+            if (script == null) {
+                script = ((Compilable) engine).compile(statement);
+                compilations++;
+                scripts.put(statement, script);
+            }
+            return script.eval(bindings);
+        }
+
+        boolean isExhausted() {
+            return compilations >= REFRESH_ENGINE_COUNT;
+        }
+    }
 
-    public static Iterable getRepresentation(final Object result) {
+    @SuppressWarnings("unchecked")
+    public static Iterable<Object> getRepresentation(final Object result) {
         if (result instanceof Iterable) {
             if (result instanceof Table) {
                 final Table table = (Table) result;
-                return new IterableWrapper<Map<String,Object>,Table.Row>(table) {
+                return new IterableWrapper<Object,Table.Row>(table) {
                     @Override
-                    protected Map<String, Object> underlyingObjectToObject(Table.Row row) {
+                    protected Object underlyingObjectToObject(Table.Row row) {
                         Map<String,Object> result=new LinkedHashMap<String, Object>();
                         for (String column : table.getColumnNames()) {
                             result.put(column, row.getColumn(column));
@@ -94,14 +158,14 @@ public class GremlinExecutor {
                     }
                 };
             }
-            return new IterableWrapper((Iterable) result) {
+            return new IterableWrapper<Object, Object>((Iterable<Object>) result) {
                 @Override
                 protected Object underlyingObjectToObject(Object object) {
                     return getSingleResult(object);
                 }
             };
         } else {
-            return Collections.singleton(getSingleResult(result));
+            return Collections.<Object>singleton(getSingleResult(result));
         }
     }
 
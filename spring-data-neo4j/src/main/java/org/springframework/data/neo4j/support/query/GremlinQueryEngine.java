@@ -22,6 +22,7 @@ import org.springframework.data.neo4j.conversion.DefaultConverter;
 import org.springframework.data.neo4j.conversion.QueryResult;
 import org.springframework.data.neo4j.conversion.QueryResultBuilder;
 import org.springframework.data.neo4j.conversion.ResultConverter;
+import org.springframework.data.neo4j.support.IndexChangeBuffer;
 
 import java.util.Map;
 
@@ -29,6 +30,7 @@ public class GremlinQueryEngine implements QueryEngine<Object> {
 
     private final GremlinExecutor gremlinExecutor;
     private final ResultConverter resultConverter;
+    private final IndexChangeBuffer indexChangeBuffer;
 
     public GremlinQueryEngine(GraphDatabaseService graphDatabaseService) {
         this(graphDatabaseService, new DefaultConverter());
@@ -36,13 +38,22 @@ public class GremlinQueryEngine implements QueryEngine<Object> {
 
 
     public GremlinQueryEngine(GraphDatabaseService graphDatabaseService, ResultConverter resultConverter) {
+        this(graphDatabaseService, resultConverter, null);
+    }
+
+    /**
+     * @param indexChangeBuffer optional, its pending index changes are written before each query
+     */
+    public GremlinQueryEngine(GraphDatabaseService graphDatabaseService, ResultConverter resultConverter, IndexChangeBuffer indexChangeBuffer) {
         this.resultConverter = resultConverter != null ? resultConverter : new DefaultConverter();
         this.gremlinExecutor = new GremlinExecutor(graphDatabaseService);
+        this.indexChangeBuffer = indexChangeBuffer;
     }
 
     @Override
     public QueryResult<Object> query(String statement, Map<String, Object> params) {
         try {
+            if (indexChangeBuffer != null) indexChangeBuffer.flush();
             Iterable<Object> result = gremlinExecutor.query(statement, params);
             return new QueryResultBuilder<Object>(result,resultConverter);
         } catch (Exception e) {
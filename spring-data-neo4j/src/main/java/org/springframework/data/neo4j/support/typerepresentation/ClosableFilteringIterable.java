@@ -0,0 +1,42 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.neo4j.helpers.Predicate;
+import org.neo4j.helpers.collection.ClosableIterable;
+import org.neo4j.helpers.collection.FilteringIterable;
+
+/**
+ * Skips the items of a type lookup that are not accepted (e.g. entities whose stored type can't be resolved),
+ * closing it closes the underlying lookup.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+class ClosableFilteringIterable<T> extends FilteringIterable<T> implements ClosableIterable<T> {
+    private final ClosableIterable<?> lookup;
+
+    ClosableFilteringIterable(Iterable<T> items, Predicate<T> accepted, ClosableIterable<?> lookup) {
+        super(items, accepted);
+        this.lookup = lookup;
+    }
+
+    @Override
+    public void close() {
+        lookup.close();
+    }
+}
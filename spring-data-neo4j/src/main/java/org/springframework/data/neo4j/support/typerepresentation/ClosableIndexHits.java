@@ -0,0 +1,46 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.neo4j.graphdb.index.IndexHits;
+import org.neo4j.helpers.collection.ClosableIterable;
+
+import java.util.Iterator;
+
+/**
+ * Exposes the hits of a type index lookup as {@link ClosableIterable}.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+class ClosableIndexHits<T> implements ClosableIterable<T> {
+    private final IndexHits<T> indexHits;
+
+    ClosableIndexHits(IndexHits<T> indexHits) {
+        this.indexHits = indexHits;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return indexHits.iterator();
+    }
+
+    @Override
+    public void close() {
+        indexHits.close();
+    }
+}
@@ -15,35 +15,72 @@
  */
 package org.springframework.data.neo4j.support.typerepresentation;
 
-import org.neo4j.graphdb.NotFoundException;
 import org.springframework.data.neo4j.core.GraphBacked;
+import org.springframework.util.ClassUtils;
 
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Resolves stored type names to classes and to the names of their entity superclasses (all classes up the
+ * hierarchy carrying the entity annotation). Both are computed once per type, lookups don't lock.
+ * Classes are loaded through the context class loader, falling back to the loader of this class.
+ *
  * @author mh
  * @since 22.09.11
  */
 class EntityTypeCache {
-    private final Map<String, Class<?>> cache = new WeakHashMap<String, Class<?>>();
+    private final Class<? extends Annotation> entityAnnotation;
+    private final ConcurrentMap<String, Class<?>> classes = new ConcurrentHashMap<String, Class<?>>();
+    private final ConcurrentMap<Class<?>, List<String>> hierarchies = new ConcurrentHashMap<Class<?>, List<String>>();
+
+    EntityTypeCache(Class<? extends Annotation> entityAnnotation) {
+        this.entityAnnotation = entityAnnotation;
+    }
 
     @SuppressWarnings({"unchecked"})
     <ENTITY extends GraphBacked<?>> Class<ENTITY> getClassForName(String className) {
+        if (className == null) return null;
+        Class<?> result = classes.get(className);
+        if (result != null) return (Class<ENTITY>) result;
         try {
-            Class<ENTITY> result = (Class<ENTITY>) cache.get(className);
-            if (result != null) return result;
-            synchronized (cache) {
-                result = (Class<ENTITY>) cache.get(className);
-                if (result != null) return result;
-                result = (Class<ENTITY>) Class.forName(className);
-                cache.put(className, result);
-                return result;
-            }
-        } catch (NotFoundException e) {
-            return null;
+            result = ClassUtils.forName(className, ClassUtils.getDefaultClassLoader());
         } catch (ClassNotFoundException e) {
             return null;
+        } catch (LinkageError e) {
+            return null;
         }
+        final Class<?> existing = classes.putIfAbsent(className, result);
+        return (Class<ENTITY>) (existing != null ? existing : result);
+    }
+
+    /**
+     * @return names of the type and of all its superclasses annotated with the entity annotation, most specific first
+     */
+    List<String> getTypeHierarchy(Class<?> type) {
+        List<String> result = hierarchies.get(type);
+        if (result != null) return result;
+        final List<String> typeNames = new ArrayList<String>();
+        Class<?> klass = type;
+        while (klass != null && klass.getAnnotation(entityAnnotation) != null) {
+            typeNames.add(klass.getName());
+            klass = klass.getSuperclass();
+        }
+        result = Collections.unmodifiableList(typeNames);
+        final List<String> existing = hierarchies.putIfAbsent(type, result);
+        return existing != null ? existing : result;
+    }
+
+    /**
+     * @return the type hierarchy of the named type, or just the name itself if the type can't be loaded
+     */
+    List<String> getTypeHierarchy(String className) {
+        final Class<?> type = getClassForName(className);
+        if (type == null) return Collections.singletonList(className);
+        return getTypeHierarchy(type);
     }
 }
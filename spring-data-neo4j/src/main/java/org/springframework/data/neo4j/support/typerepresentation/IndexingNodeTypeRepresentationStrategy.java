@@ -31,22 +31,33 @@ import org.springframework.data.persistence.EntityInstantiator;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.WeakHashMap;
 
 public class IndexingNodeTypeRepresentationStrategy implements NodeTypeRepresentationStrategy {
 
     public static final String INDEX_NAME = "__types__";
     public static final String TYPE_PROPERTY_NAME = "__type__";
     public static final String INDEX_KEY = "className";
+    public static final String COUNTS_RELATIONSHIP_NAME = "NODE_TYPE_COUNTS";
     private EntityInstantiator<NodeBacked, Node> graphEntityInstantiator;
     private GraphDatabaseService graphDb;
     private final EntityTypeCache typeCache;
+    private final TypeCounter typeCounter;
 
     public IndexingNodeTypeRepresentationStrategy(GraphDatabaseService graphDb,
                                                   EntityInstantiator<NodeBacked, Node> graphEntityInstantiator) {
+        this(graphDb, graphEntityInstantiator, true);
+    }
+
+    /**
+     * @param cacheCounts whether the committed instance counts are kept in memory
+     */
+    public IndexingNodeTypeRepresentationStrategy(GraphDatabaseService graphDb,
+                                                  EntityInstantiator<NodeBacked, Node> graphEntityInstantiator,
+                                                  boolean cacheCounts) {
 		this.graphDb = graphDb;
 		this.graphEntityInstantiator = graphEntityInstantiator;
-        typeCache = new EntityTypeCache();
+        typeCache = new EntityTypeCache(NodeEntity.class);
+        typeCounter = new TypeCounter(graphDb, COUNTS_RELATIONSHIP_NAME, INDEX_NAME, true, cacheCounts);
     }
 
 	private Index<Node> getNodeTypesIndex() {
@@ -64,10 +75,9 @@ public class IndexingNodeTypeRepresentationStrategy implements NodeTypeRepresent
 	}
 
     private void addToNodeTypesIndex(Node node, Class<? extends NodeBacked> entityClass) {
-		Class<?> klass = entityClass;
-		while (klass.getAnnotation(NodeEntity.class) != null) {
-			getNodeTypesIndex().add(node, INDEX_KEY, klass.getName());
-			klass = klass.getSuperclass();
+		for (String typeName : typeCache.getTypeHierarchy(entityClass)) {
+			getNodeTypesIndex().add(node, INDEX_KEY, typeName);
+			typeCounter.increment(typeName);
 		}
 	}
 
@@ -76,6 +86,18 @@ public class IndexingNodeTypeRepresentationStrategy implements NodeTypeRepresent
         return findAllNodeBacked(clazz);
     }
 
+    @Override
+    public ClosableIterable<Node> findAllStates(Class<? extends NodeBacked> clazz) {
+        final ClosableIndexHits<Node> hits = new ClosableIndexHits<Node>(getNodeTypesIndex().get(INDEX_KEY, clazz.getName()));
+        // like findAll, skips stale index entries whose stored type is missing or can't be resolved
+        return new ClosableFilteringIterable<Node>(hits, new Predicate<Node>() {
+            @Override
+            public boolean accept(Node state) {
+                return getJavaType(state) != null;
+            }
+        }, hits);
+    }
+
     private <ENTITY extends NodeBacked> ClosableIterable<ENTITY> findAllNodeBacked(Class<ENTITY> clazz) {
 		final IndexHits<Node> allEntitiesOfType = getNodeTypesIndex().get(INDEX_KEY, clazz.getName());
         return new FilteringClosableIterable<ENTITY>(allEntitiesOfType);
@@ -83,6 +105,7 @@ public class IndexingNodeTypeRepresentationStrategy implements NodeTypeRepresent
 
     @Override
     public long count(Class<? extends NodeBacked> entityClass) {
+        if (typeCounter.isMaintained()) return typeCounter.count(entityClass.getName());
         long count = 0;
         for (Object o : getNodeTypesIndex().get(INDEX_KEY, entityClass.getName())) {
             count += 1;
@@ -93,15 +116,44 @@ public class IndexingNodeTypeRepresentationStrategy implements NodeTypeRepresent
     @Override
     public Class<? extends NodeBacked> getJavaType(Node node) {
 		if (node == null) throw new IllegalArgumentException("Node is null");
-        String className = (String) node.getProperty(TYPE_PROPERTY_NAME);
+        String className = (String) node.getProperty(TYPE_PROPERTY_NAME, null);
         return typeCache.getClassForName(className);
     }
 
     @Override
 	public void preEntityRemoval(Node state) {
+        if (state.hasProperty(TYPE_PROPERTY_NAME)) {
+            for (String typeName : typeCache.getTypeHierarchy((String) state.getProperty(TYPE_PROPERTY_NAME))) {
+                typeCounter.decrement(typeName);
+            }
+        }
         getNodeTypesIndex().remove(state);
 	}
 
+    /**
+     * Recounts the instances of all types by scanning the nodes of the store, needed once for stores that were
+     * populated before instance counts were maintained.
+     */
+    public void rebuildCounts() {
+        final Map<String, Long> counts = new HashMap<String, Long>();
+        for (Node node : graphDb.getAllNodes()) {
+            if (!node.hasProperty(TYPE_PROPERTY_NAME)) continue;
+            for (String typeName : typeCache.getTypeHierarchy((String) node.getProperty(TYPE_PROPERTY_NAME))) {
+                final Long count = counts.get(typeName);
+                counts.put(typeName, count == null ? 1L : count + 1);
+            }
+        }
+        typeCounter.rebuild(counts);
+    }
+
+    /**
+     * removes the transaction event handler that maintains the instance counts, to be called when the strategy is
+     * no longer used
+     */
+    public void shutdown() {
+        typeCounter.shutdown();
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <U extends NodeBacked> U createEntity(Node state) {
@@ -16,6 +16,7 @@
 
 package org.springframework.data.neo4j.support.typerepresentation;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.NotFoundException;
@@ -35,22 +36,33 @@ import org.springframework.data.persistence.EntityInstantiator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.WeakHashMap;
 
 public class IndexingRelationshipTypeRepresentationStrategy implements RelationshipTypeRepresentationStrategy {
 
     public static final String INDEX_NAME = "__types__";
     public static final String TYPE_PROPERTY_NAME = "__type__";
     public static final String INDEX_KEY = "className";
+    public static final String COUNTS_RELATIONSHIP_NAME = "RELATIONSHIP_TYPE_COUNTS";
     private EntityInstantiator<RelationshipBacked, Relationship> relationshipEntityInstantiator;
     private GraphDatabaseService graphDb;
     private final EntityTypeCache typeCache;
+    private final TypeCounter typeCounter;
 
     public IndexingRelationshipTypeRepresentationStrategy(GraphDatabaseService graphDb,
                                                           EntityInstantiator<RelationshipBacked, Relationship> relationshipEntityInstantiator) {
+        this(graphDb, relationshipEntityInstantiator, true);
+    }
+
+    /**
+     * @param cacheCounts whether the committed instance counts are kept in memory
+     */
+    public IndexingRelationshipTypeRepresentationStrategy(GraphDatabaseService graphDb,
+                                                          EntityInstantiator<RelationshipBacked, Relationship> relationshipEntityInstantiator,
+                                                          boolean cacheCounts) {
 		this.graphDb = graphDb;
         this.relationshipEntityInstantiator = relationshipEntityInstantiator;
-        typeCache = new EntityTypeCache();
+        typeCache = new EntityTypeCache(RelationshipEntity.class);
+        typeCounter = new TypeCounter(graphDb, COUNTS_RELATIONSHIP_NAME, INDEX_NAME, false, cacheCounts);
     }
 
 	private Index<Relationship> getRelTypesIndex() {
@@ -64,10 +76,9 @@ public class IndexingRelationshipTypeRepresentationStrategy implements Relations
 	}
 
     private void addToTypesIndex(Relationship node, Class<? extends RelationshipBacked> entityClass) {
-		Class<?> klass = entityClass;
-		while (klass.getAnnotation(RelationshipEntity.class) != null) {
-			getRelTypesIndex().add(node, INDEX_KEY, klass.getName());
-			klass = klass.getSuperclass();
+		for (String typeName : typeCache.getTypeHierarchy(entityClass)) {
+			getRelTypesIndex().add(node, INDEX_KEY, typeName);
+			typeCounter.increment(typeName);
 		}
 	}
 
@@ -76,6 +87,18 @@ public class IndexingRelationshipTypeRepresentationStrategy implements Relations
         return findAllRelBacked(clazz);
     }
 
+    @Override
+    public ClosableIterable<Relationship> findAllStates(Class<? extends RelationshipBacked> clazz) {
+        final ClosableIndexHits<Relationship> hits = new ClosableIndexHits<Relationship>(getRelTypesIndex().get(INDEX_KEY, clazz.getName()));
+        // like findAll, skips stale index entries whose stored type is missing or can't be resolved
+        return new ClosableFilteringIterable<Relationship>(hits, new Predicate<Relationship>() {
+            @Override
+            public boolean accept(Relationship state) {
+                return getJavaType(state) != null;
+            }
+        }, hits);
+    }
+
     private <ENTITY extends RelationshipBacked> ClosableIterable<ENTITY> findAllRelBacked(Class<ENTITY> clazz) {
         final IndexHits<Relationship> allEntitiesOfType = getRelTypesIndex().get(INDEX_KEY, clazz.getName());
         return new FilteringClosableEntityIterable<ENTITY>(allEntitiesOfType);
@@ -85,6 +108,7 @@ public class IndexingRelationshipTypeRepresentationStrategy implements Relations
 
     @Override
     public long count(Class<? extends RelationshipBacked> entityClass) {
+        if (typeCounter.isMaintained()) return typeCounter.count(entityClass.getName());
         long count = 0;
         final IndexHits<Relationship> hits = getRelTypesIndex().get(INDEX_KEY, entityClass.getName());
         while (hits.hasNext()) {
@@ -98,16 +122,47 @@ public class IndexingRelationshipTypeRepresentationStrategy implements Relations
     @SuppressWarnings("unchecked")
     public Class<? extends RelationshipBacked> getJavaType(Relationship relationship) {
 		if (relationship == null) throw new IllegalArgumentException("Relationship is null");
-        String className = (String) relationship.getProperty(TYPE_PROPERTY_NAME);
+        String className = (String) relationship.getProperty(TYPE_PROPERTY_NAME, null);
         return typeCache.getClassForName(className);
     }
 
 
     @Override
     public void preEntityRemoval(Relationship state) {
+        if (state.hasProperty(TYPE_PROPERTY_NAME)) {
+            for (String typeName : typeCache.getTypeHierarchy((String) state.getProperty(TYPE_PROPERTY_NAME))) {
+                typeCounter.decrement(typeName);
+            }
+        }
         getRelTypesIndex().remove(state);
     }
 
+    /**
+     * Recounts the instances of all types by scanning the relationships of the store, needed once for stores that
+     * were populated before instance counts were maintained.
+     */
+    public void rebuildCounts() {
+        final Map<String, Long> counts = new HashMap<String, Long>();
+        for (Node node : graphDb.getAllNodes()) {
+            for (Relationship relationship : node.getRelationships(Direction.OUTGOING)) {
+                if (!relationship.hasProperty(TYPE_PROPERTY_NAME)) continue;
+                for (String typeName : typeCache.getTypeHierarchy((String) relationship.getProperty(TYPE_PROPERTY_NAME))) {
+                    final Long count = counts.get(typeName);
+                    counts.put(typeName, count == null ? 1L : count + 1);
+                }
+            }
+        }
+        typeCounter.rebuild(counts);
+    }
+
+    /**
+     * removes the transaction event handler that maintains the instance counts, to be called when the strategy is
+     * no longer used
+     */
+    public void shutdown() {
+        typeCounter.shutdown();
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <U extends RelationshipBacked> U createEntity(Relationship state) {
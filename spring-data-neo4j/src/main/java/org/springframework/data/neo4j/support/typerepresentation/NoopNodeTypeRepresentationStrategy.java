@@ -32,6 +32,11 @@ public class NoopNodeTypeRepresentationStrategy implements NodeTypeRepresentatio
         throw new UnsupportedOperationException("findAll not supported.");
     }
 
+    @Override
+    public ClosableIterable<Node> findAllStates(Class<? extends NodeBacked> clazz) {
+        throw new UnsupportedOperationException("findAllStates not supported.");
+    }
+
     @Override
     public long count(Class<? extends NodeBacked> entityClass) {
         throw new UnsupportedOperationException("count not supported.");
@@ -32,6 +32,11 @@ public class NoopRelationshipTypeRepresentationStrategy implements RelationshipT
         throw new UnsupportedOperationException("findAll not supported.");
     }
 
+    @Override
+    public ClosableIterable<Relationship> findAllStates(Class<? extends RelationshipBacked> clazz) {
+        throw new UnsupportedOperationException("findAllStates not supported.");
+    }
+
     @Override
     public long count(Class<? extends RelationshipBacked> entityClass) {
         throw new UnsupportedOperationException("count not supported.");
@@ -24,6 +24,7 @@ import org.neo4j.helpers.collection.ClosableIterable;
 import org.neo4j.helpers.collection.CombiningIterable;
 import org.neo4j.helpers.collection.IterableWrapper;
 import org.neo4j.kernel.Traversal;
+import org.springframework.data.neo4j.annotation.NodeEntity;
 import org.springframework.data.neo4j.core.GraphBacked;
 import org.springframework.data.neo4j.core.NodeBacked;
 import org.springframework.data.neo4j.core.NodeTypeRepresentationStrategy;
@@ -39,6 +40,11 @@ import java.util.List;
  * graph database. Entity nodes are related to their concrete type via an INSTANCE_OF relationship, the type hierarchy is
  * related to supertypes via SUBCLASS_OF relationships. Each concrete subreference node keeps a count property with the number of
  * instances of this class in the graph.
+ * <p>
+ * As every entity creation increments the counters of its type and all supertypes, concurrent creators of the same
+ * type are serialized on the write-lock of the subreference node. When constructed with more than one counter stripe,
+ * the instance relationships and counts are spread over stripe nodes attached to each subreference node, each
+ * thread using a single stripe. {@link #count(Class)} sums up all stripes and so still returns the exact total.
  *
  * @author Michael Hunger
  * @since 13.09.2010
@@ -52,15 +58,28 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
     public static final String SUBREFERENCE_NODE_COUNTER_KEY = "count";
     public static final String SUBREF_PREFIX = "SUBREF_";
 	public static final String SUBREF_CLASS_KEY = "class";
+    public static final String COUNTER_STRIPE_PREFIX = "COUNTER_STRIPE_";
+    public static final int DEFAULT_COUNTER_STRIPES = 1;
 
 	private GraphDatabaseService graphDatabaseService;
 	private EntityInstantiator<NodeBacked, Node> entityInstantiator;
     private final EntityTypeCache typeCache;
+    private final int counterStripes;
 
     public SubReferenceNodeTypeRepresentationStrategy(GraphDatabaseService graphDatabaseService, EntityInstantiator<NodeBacked, Node> entityInstantiator) {
+        this(graphDatabaseService, entityInstantiator, DEFAULT_COUNTER_STRIPES);
+    }
+
+    /**
+     * @param counterStripes number of stripe nodes per subreference node that share the instance relationships and
+     * counts, 1 keeps everything on the subreference node itself
+     */
+    public SubReferenceNodeTypeRepresentationStrategy(GraphDatabaseService graphDatabaseService, EntityInstantiator<NodeBacked, Node> entityInstantiator, int counterStripes) {
+        if (counterStripes < 1) throw new IllegalArgumentException("Number of counter stripes must be at least 1 but was " + counterStripes);
 		this.graphDatabaseService = graphDatabaseService;
 		this.entityInstantiator = entityInstantiator;
-        typeCache = new EntityTypeCache();
+        this.counterStripes = counterStripes;
+        typeCache = new EntityTypeCache(NodeEntity.class);
     }
 
     public static Node getSingleOtherNode(Node node, RelationshipType type,
@@ -79,6 +98,7 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
 
     public static Integer decrementAndGetCounter(Node node, String propertyKey,
                                                  int notLowerThan) {
+        acquireWriteLock(node);
         int value = (Integer) node.getProperty(propertyKey, 0);
         value--;
         value = value < notLowerThan ? notLowerThan : value;
@@ -94,12 +114,12 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
 
     @Override
     public void postEntityCreation(Node state, Class<? extends NodeBacked> type) {
-	    final Node subReference = obtainSubreferenceNode(type);
-        state.createRelationshipTo(subReference, INSTANCE_OF_RELATIONSHIP_TYPE);
-	    subReference.setProperty(SUBREF_CLASS_KEY, type.getName());
-	    if (log.isDebugEnabled()) log.debug("Created link to subref node: " + subReference + " with type: " + type.getName());
+	    final Node subReference = obtainNamedSubreferenceNode(type);
+        final Node counterNode = obtainCounterNode(subReference);
+        state.createRelationshipTo(counterNode, INSTANCE_OF_RELATIONSHIP_TYPE);
+	    if (log.isDebugEnabled()) log.debug("Created link to subref node: " + counterNode + " with type: " + type.getName());
 
-        incrementAndGetCounter(subReference, SUBREFERENCE_NODE_COUNTER_KEY);
+        incrementAndGetCounter(counterNode, SUBREFERENCE_NODE_COUNTER_KEY);
 
 	    updateSuperClassSubrefs(type, subReference);
     }
@@ -107,22 +127,58 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
     private void updateSuperClassSubrefs(Class<?> clazz, Node subReference) {
 	    Class<?> superClass = clazz.getSuperclass();
 	    if (superClass != null) {
-		    Node superClassSubref = obtainSubreferenceNode(superClass);
+		    Node superClassSubref = obtainNamedSubreferenceNode(superClass);
 		    if (getSingleOtherNode(subReference, SUBCLASS_OF_RELATIONSHIP_TYPE, Direction.OUTGOING) == null) {
 			    subReference.createRelationshipTo(superClassSubref, SUBCLASS_OF_RELATIONSHIP_TYPE);
 		    }
-		    superClassSubref.setProperty(SUBREF_CLASS_KEY, superClass.getName());
-		    Integer count = incrementAndGetCounter(superClassSubref, SUBREFERENCE_NODE_COUNTER_KEY);
+		    Integer count = incrementAndGetCounter(obtainCounterNode(superClassSubref), SUBREFERENCE_NODE_COUNTER_KEY);
 		    if (log.isDebugEnabled()) log.debug("count on ref " + superClassSubref + " for class " + superClass.getSimpleName() + " = " + count);
 		    updateSuperClassSubrefs(superClass, superClassSubref);
 	    }
 	}
 
+    /**
+     * Returns the node holding the instance relationships and the counter for the current thread, that is the
+     * subreference node itself or one of its stripe nodes, which is created on first use.
+     */
+    private Node obtainCounterNode(Node subReference) {
+        if (counterStripes == 1) return subReference;
+        final RelationshipType stripeType = DynamicRelationshipType.withName(COUNTER_STRIPE_PREFIX + (Thread.currentThread().getId() % counterStripes));
+        Node stripe = getSingleOtherNode(subReference, stripeType, Direction.OUTGOING);
+        if (stripe != null) return stripe;
+        acquireWriteLock(subReference);
+        stripe = getSingleOtherNode(subReference, stripeType, Direction.OUTGOING);
+        if (stripe != null) return stripe;
+        stripe = graphDatabaseService.createNode();
+        subReference.createRelationshipTo(stripe, stripeType);
+        stripe.setProperty(SUBREF_CLASS_KEY, subReference.getProperty(SUBREF_CLASS_KEY));
+        if (log.isDebugEnabled()) log.debug("Created counter stripe " + stripeType.name() + " for subref node: " + subReference);
+        return stripe;
+    }
+
+    /**
+     * @return the subreference node followed by all of its counter stripe nodes
+     */
+    private List<Node> counterNodes(Node subReference) {
+        final List<Node> result = new LinkedList<Node>();
+        result.add(subReference);
+        for (Relationship relationship : subReference.getRelationships(Direction.OUTGOING)) {
+            if (relationship.getType().name().startsWith(COUNTER_STRIPE_PREFIX)) {
+                result.add(relationship.getEndNode());
+            }
+        }
+        return result;
+    }
+
 	@Override
     public long count(final Class<? extends NodeBacked> entityClass) {
         final Node subrefNode = findSubreferenceNode(entityClass);
         if (subrefNode == null) return 0;
-        return (Integer) subrefNode.getProperty(SUBREFERENCE_NODE_COUNTER_KEY, 0);
+        long count = 0;
+        for (Node counterNode : counterNodes(subrefNode)) {
+            count += (Integer) counterNode.getProperty(SUBREFERENCE_NODE_COUNTER_KEY, 0);
+        }
+        return count < 0 ? 0 : count;
     }
 
 	@Override
@@ -153,14 +209,20 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
         if (clazz == null) return;
         final Node subReference = obtainSubreferenceNode(clazz);
         Relationship instanceOf = state.getSingleRelationship(INSTANCE_OF_RELATIONSHIP_TYPE, Direction.OUTGOING);
+        final Node instanceCounterNode = instanceOf.getEndNode();
         instanceOf.delete();
         if (log.isDebugEnabled())
-            log.debug("Removed link to subref node: " + subReference + " with type: " + clazz.getName());
+            log.debug("Removed link to subref node: " + instanceCounterNode + " with type: " + clazz.getName());
+        // a single stripe may be decremented below zero by a thread other than the one that incremented it, only the sum matters
+        final int notLowerThan = counterStripes == 1 ? 0 : Integer.MIN_VALUE;
+        decrementAndGetCounter(instanceCounterNode, SUBREFERENCE_NODE_COUNTER_KEY, notLowerThan);
         TraversalDescription traversal = Traversal.description().depthFirst().relationships(SUBCLASS_OF_RELATIONSHIP_TYPE, Direction.OUTGOING);
         for (Node node : traversal.traverse(subReference).nodes()) {
-            Integer count = (Integer) node.getProperty(SUBREFERENCE_NODE_COUNTER_KEY);
-            Integer newCount = decrementAndGetCounter(node, SUBREFERENCE_NODE_COUNTER_KEY, 0);
-            if (log.isDebugEnabled()) log.debug("count on ref " + node + " was " + count + " new " + newCount);
+            if (node.equals(subReference)) continue;
+            final Node counterNode = obtainCounterNode(node);
+            Integer count = (Integer) counterNode.getProperty(SUBREFERENCE_NODE_COUNTER_KEY, 0);
+            Integer newCount = decrementAndGetCounter(counterNode, SUBREFERENCE_NODE_COUNTER_KEY, notLowerThan);
+            if (log.isDebugEnabled()) log.debug("count on ref " + counterNode + " was " + count + " new " + newCount);
         }
     }
 
@@ -172,22 +234,46 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
 		return new ClosableCombiningIterable<T>(relIterables);
     }
 
+    @Override
+    public ClosableIterable<Node> findAllStates(Class<? extends NodeBacked> clazz) {
+        return new ClosableCombiningIterable<Node>(findStateIterables(findSubreferenceNode(clazz)));
+    }
+
+    private List<Iterable<Node>> findStateIterables(Node subrefNode) {
+        if (subrefNode == null) return Collections.emptyList();
+        List<Iterable<Node>> result = new LinkedList<Iterable<Node>>();
+        for (Relationship relationship : subrefNode.getRelationships(SUBCLASS_OF_RELATIONSHIP_TYPE, Direction.INCOMING)) {
+            result.addAll(findStateIterables(relationship.getStartNode()));
+        }
+        for (Node counterNode : counterNodes(subrefNode)) {
+            result.add(new IterableWrapper<Node, Relationship>(counterNode.getRelationships(INSTANCE_OF_RELATIONSHIP_TYPE, Direction.INCOMING)) {
+                @Override
+                protected Node underlyingObjectToObject(final Relationship rel) {
+                    return rel.getStartNode();
+                }
+            });
+        }
+        return result;
+    }
+
 	private <T extends NodeBacked> List<Iterable<T>> findEntityIterables(Node subrefNode) {
         if (subrefNode == null) return Collections.emptyList();
 		List<Iterable<T>> result = new LinkedList<Iterable<T>>();
 		for (Relationship relationship : subrefNode.getRelationships(SUBCLASS_OF_RELATIONSHIP_TYPE, Direction.INCOMING)) {
 			result.addAll((Collection<? extends Iterable<T>>) findEntityIterables(relationship.getStartNode()));
 		}
-		Iterable<T> t = new IterableWrapper<T, Relationship>(subrefNode.getRelationships(INSTANCE_OF_RELATIONSHIP_TYPE, Direction.INCOMING)) {
-            @Override
-            protected T underlyingObjectToObject(final Relationship rel) {
-                final Node node = rel.getStartNode();
-	            T entity = (T) entityInstantiator.createEntityFromState(node, getJavaType(node));
-	            if (log.isDebugEnabled()) log.debug("Converting node: " + node + " to entity: " + entity);
-	            return entity;
-            }
-        };
-		result.add(t);
+        for (Node counterNode : counterNodes(subrefNode)) {
+            Iterable<T> t = new IterableWrapper<T, Relationship>(counterNode.getRelationships(INSTANCE_OF_RELATIONSHIP_TYPE, Direction.INCOMING)) {
+                @Override
+                protected T underlyingObjectToObject(final Relationship rel) {
+                    final Node node = rel.getStartNode();
+                    T entity = (T) entityInstantiator.createEntityFromState(node, getJavaType(node));
+                    if (log.isDebugEnabled()) log.debug("Converting node: " + node + " to entity: " + entity);
+                    return entity;
+                }
+            };
+            result.add(t);
+        }
 		return result;
 	}
 
@@ -196,6 +282,17 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
         return getOrCreateSubReferenceNode(subRefRelationshipType(entityClass));
     }
 
+    /**
+     * only writes the class name if it is not yet set, to avoid write-locking the subreference node on every creation
+     */
+    private Node obtainNamedSubreferenceNode(final Class<?> entityClass) {
+        final Node subReference = obtainSubreferenceNode(entityClass);
+        if (!subReference.hasProperty(SUBREF_CLASS_KEY)) {
+            subReference.setProperty(SUBREF_CLASS_KEY, entityClass.getName());
+        }
+        return subReference;
+    }
+
     public Node findSubreferenceNode(final Class<? extends NodeBacked> entityClass) {
         final Relationship subrefRelationship = graphDatabaseService.getReferenceNode().getSingleRelationship(subRefRelationshipType(entityClass), Direction.OUTGOING);
         return subrefRelationship != null ? subrefRelationship.getEndNode() : null;
@@ -215,6 +312,11 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
 	    if (singleRelationship != null) {
 	        return singleRelationship.getOtherNode(fromNode);
 	    }
+	    acquireWriteLock(fromNode);
+	    singleRelationship = fromNode.getSingleRelationship(type, direction);
+	    if (singleRelationship != null) {
+	        return singleRelationship.getOtherNode(fromNode);
+	    }
 
 	    Node otherNode = graphDatabaseService.createNode();
 	    fromNode.createRelationshipTo(otherNode, type);
@@ -249,7 +351,7 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
         return entityInstantiator.createEntityFromState(state, type);
     }
 
-    private static class ClosableCombiningIterable<T extends NodeBacked> extends CombiningIterable<T> implements ClosableIterable<T> {
+    private static class ClosableCombiningIterable<T> extends CombiningIterable<T> implements ClosableIterable<T> {
         private final Iterable<Iterable<T>> relIterables;
 
         public ClosableCombiningIterable(Iterable<Iterable<T>> relIterables) {
@@ -0,0 +1,302 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.neo4j.graphdb.*;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+import org.neo4j.kernel.AbstractGraphDatabase;
+
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps exact per-type instance counts for the type representation strategies. Increments and decrements
+ * are collected per transaction and applied to a counts node (attached to the reference node) right before the commit,
+ * so the counts node is only locked for the duration of the commit. Reading a count is a single property lookup
+ * (or a lookup in an in-memory cache of the committed counts) instead of a walk over all type index hits.
+ * <p>
+ * Counts are only maintained for embedded databases (which support transaction event handlers) and for stores that
+ * either started out with counting or were counted once by {@link #rebuild(java.util.Map)}. Whether a store is counted
+ * is decided once when the counter is created: a store without type index is counted from the start, its counts node
+ * is created by the first commit that changes a count. A store with a type index but without counts node is not
+ * counted. In that case {@link #isMaintained()} returns false until the counts are rebuilt and the strategies fall
+ * back to counting the index hits. {@link #shutdown()} removes the transaction event handler of the counter.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public class TypeCounter {
+    private final static Log log = LogFactory.getLog(TypeCounter.class);
+
+    private final GraphDatabaseService graphDb;
+    private final RelationshipType countsRelationshipType;
+    private final String typeIndexName;
+    private final boolean forNodes;
+    private final boolean cacheCounts;
+    private final TransactionManager transactionManager;
+    private final CountsUpdater countsUpdater = new CountsUpdater();
+    private volatile boolean registered;
+    private volatile boolean maintained;
+
+    private final ThreadLocal<PendingCounts> pendingCounts = new ThreadLocal<PendingCounts>();
+    private final Map<String, Long> committedCounts = new HashMap<String, Long>();
+    private long cachedCountsNodeId = -1;
+
+    /**
+     * @param graphDb database to keep the counts in
+     * @param countsRelationshipName name of the relationship type from the reference node to the counts node
+     * @param typeIndexName name of the type index of the strategy, a store with an existing type index but without
+     * counts node was not counted from the start; null for strategies that always count from the start
+     * @param forNodes whether the type index is a node or relationship index
+     * @param cacheCounts whether the committed counts are kept in memory
+     */
+    public TypeCounter(GraphDatabaseService graphDb, String countsRelationshipName, String typeIndexName, boolean forNodes, boolean cacheCounts) {
+        this.graphDb = graphDb;
+        this.countsRelationshipType = DynamicRelationshipType.withName(countsRelationshipName);
+        this.typeIndexName = typeIndexName;
+        this.forNodes = forNodes;
+        this.cacheCounts = cacheCounts;
+        if (graphDb instanceof AbstractGraphDatabase) {
+            this.transactionManager = ((AbstractGraphDatabase) graphDb).getConfig().getTxModule().getTxManager();
+            this.maintained = countsFromStart();
+            graphDb.registerTransactionEventHandler(countsUpdater);
+            this.registered = true;
+        } else {
+            this.transactionManager = null;
+        }
+    }
+
+    /**
+     * only reads the store, the counts node is created lazily by the first counted commit
+     */
+    private boolean countsFromStart() {
+        return getCountsNode() != null || !typeIndexExists();
+    }
+
+    /**
+     * removes the transaction event handler, the counts are not maintained afterwards
+     */
+    public void shutdown() {
+        if (!registered) return;
+        registered = false;
+        maintained = false;
+        try {
+            graphDb.unregisterTransactionEventHandler(countsUpdater);
+        } catch (IllegalStateException e) {
+            // handler already removed or database shut down
+        }
+        pendingCounts.remove();
+        clearCache();
+    }
+
+    /**
+     * @return true if the counts of this store are exact and kept up to date
+     */
+    public boolean isMaintained() {
+        return maintained;
+    }
+
+    private boolean typeIndexExists() {
+        if (typeIndexName == null) return false;
+        return forNodes ? graphDb.index().existsForNodes(typeIndexName) : graphDb.index().existsForRelationships(typeIndexName);
+    }
+
+    public void increment(String typeName) {
+        addDelta(typeName, 1);
+    }
+
+    public void decrement(String typeName) {
+        addDelta(typeName, -1);
+    }
+
+    private void addDelta(String typeName, long delta) {
+        if (!isMaintained()) return;
+        PendingCounts counts = currentPendingCounts();
+        if (counts == null) {
+            counts = new PendingCounts(currentTransaction());
+            pendingCounts.set(counts);
+        }
+        counts.add(typeName, delta);
+    }
+
+    /**
+     * @return committed count of the type plus the changes of the current transaction
+     */
+    public long count(String typeName) {
+        final PendingCounts counts = currentPendingCounts();
+        final long count = committedCount(typeName) + (counts == null ? 0 : counts.get(typeName));
+        return count < 0 ? 0 : count;
+    }
+
+    private long committedCount(String typeName) {
+        if (!cacheCounts) return readCount(getCountsNode(), typeName);
+        synchronized (committedCounts) {
+            final Long cached = committedCounts.get(typeName);
+            if (cached != null) return cached;
+            final Node countsNode = getCountsNode();
+            final long count = readCount(countsNode, typeName);
+            if (countsNode != null) {
+                if (countsNode.getId() != cachedCountsNodeId) committedCounts.clear();
+                cachedCountsNodeId = countsNode.getId();
+                committedCounts.put(typeName, count);
+            }
+            return count;
+        }
+    }
+
+    private long readCount(Node countsNode, String typeName) {
+        if (countsNode == null) return 0;
+        return (Long) countsNode.getProperty(typeName, 0L);
+    }
+
+    /**
+     * Replaces all stored counts with the given ones, to be used for stores that were populated without counting.
+     * Should not run concurrently with entity creation or removal.
+     *
+     * @param counts instance count per type name
+     */
+    public void rebuild(Map<String, Long> counts) {
+        Transaction tx = graphDb.beginTx();
+        try {
+            final Node countsNode = obtainCountsNode();
+            for (String typeName : countsNode.getPropertyKeys()) {
+                countsNode.removeProperty(typeName);
+            }
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                countsNode.setProperty(entry.getKey(), entry.getValue());
+            }
+            pendingCounts.remove();
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        maintained = registered;
+        clearCache();
+        if (log.isInfoEnabled()) log.info("Rebuilt instance counts of " + counts.size() + " types");
+    }
+
+    private void clearCache() {
+        synchronized (committedCounts) {
+            committedCounts.clear();
+            cachedCountsNodeId = -1;
+        }
+    }
+
+    private Node getCountsNode() {
+        final Relationship countsRelationship = graphDb.getReferenceNode().getSingleRelationship(countsRelationshipType, Direction.OUTGOING);
+        return countsRelationship == null ? null : countsRelationship.getEndNode();
+    }
+
+    private Node obtainCountsNode() {
+        Node countsNode = getCountsNode();
+        if (countsNode != null) return countsNode;
+        final Node referenceNode = graphDb.getReferenceNode();
+        SubReferenceNodeTypeRepresentationStrategy.acquireWriteLock(referenceNode);
+        countsNode = getCountsNode();
+        if (countsNode != null) return countsNode;
+        countsNode = graphDb.createNode();
+        referenceNode.createRelationshipTo(countsNode, countsRelationshipType);
+        return countsNode;
+    }
+
+    private PendingCounts currentPendingCounts() {
+        final PendingCounts counts = pendingCounts.get();
+        if (counts == null) return null;
+        if (counts.belongsTo(currentTransaction())) return counts;
+        // left over from a transaction that never reached the commit, e.g. because it had no other changes
+        pendingCounts.remove();
+        return null;
+    }
+
+    private javax.transaction.Transaction currentTransaction() {
+        if (transactionManager == null) return null;
+        try {
+            return transactionManager.getTransaction();
+        } catch (SystemException e) {
+            throw new IllegalStateException("Error accessing the current transaction", e);
+        }
+    }
+
+    private static class PendingCounts {
+        private final javax.transaction.Transaction transaction;
+        private final Map<String, Long> deltas = new HashMap<String, Long>();
+
+        PendingCounts(javax.transaction.Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        boolean belongsTo(javax.transaction.Transaction tx) {
+            return transaction != null && transaction.equals(tx);
+        }
+
+        void add(String typeName, long delta) {
+            deltas.put(typeName, get(typeName) + delta);
+        }
+
+        long get(String typeName) {
+            final Long delta = deltas.get(typeName);
+            return delta == null ? 0 : delta;
+        }
+    }
+
+    private class CountsUpdater implements TransactionEventHandler<Map<String, Long>> {
+        @Override
+        public Map<String, Long> beforeCommit(TransactionData data) throws Exception {
+            final PendingCounts counts = pendingCounts.get();
+            if (counts == null) return null;
+            pendingCounts.remove();
+            final Node countsNode = obtainCountsNode();
+            SubReferenceNodeTypeRepresentationStrategy.acquireWriteLock(countsNode);
+            for (Map.Entry<String, Long> delta : counts.deltas.entrySet()) {
+                if (delta.getValue() == 0) continue;
+                final long count = readCount(countsNode, delta.getKey()) + delta.getValue();
+                countsNode.setProperty(delta.getKey(), count < 0 ? 0L : count);
+            }
+            return counts.deltas;
+        }
+
+        @Override
+        public void afterCommit(TransactionData data, Map<String, Long> deltas) {
+            if (!cacheCounts) return;
+            synchronized (committedCounts) {
+                if (cachedCountsNodeId != -1) {
+                    for (Node deleted : data.deletedNodes()) {
+                        if (deleted.getId() == cachedCountsNodeId) {
+                            committedCounts.clear();
+                            cachedCountsNodeId = -1;
+                            return;
+                        }
+                    }
+                }
+                if (deltas == null) return;
+                for (String typeName : deltas.keySet()) {
+                    committedCounts.remove(typeName);
+                }
+            }
+        }
+
+        @Override
+        public void afterRollback(TransactionData data, Map<String, Long> deltas) {
+            pendingCounts.remove();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.helpers.Predicate;
+import org.neo4j.helpers.collection.ClosableIterable;
+import org.neo4j.helpers.collection.IterableWrapper;
+import org.neo4j.helpers.collection.CombiningIterable;
+import org.springframework.data.neo4j.annotation.NodeEntity;
+import org.springframework.data.neo4j.core.NodeBacked;
+import org.springframework.data.neo4j.core.NodeTypeRepresentationStrategy;
+import org.springframework.data.persistence.EntityInstantiator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Marks each entity node with compact integer type ids instead of indexing it: the id of its concrete type and the
+ * ids of all its {@link NodeEntity} superclasses are stored as properties on the node, so entity creation does no
+ * Lucene writes at all. Type ids are interned by a {@link TypeMarkerRegistry}.
+ * <p>
+ * For the per-type lookup each node is related to the type node of its concrete type, {@link #findAll(Class)}
+ * follows these relationships for all registered types assignable to the requested one. Like with the
+ * {@link SubReferenceNodeTypeRepresentationStrategy} concurrent creations of the same type contend for the lock
+ * of its type node. Instance counts are maintained by a {@link TypeCounter} where it is supported, otherwise
+ * {@link #count(Class)} counts the instances.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public class TypeMarkerNodeTypeRepresentationStrategy implements NodeTypeRepresentationStrategy {
+
+    public static final String TYPE_ID_PROPERTY_NAME = "__type_id__";
+    public static final String TYPE_IDS_PROPERTY_NAME = "__type_ids__";
+    public static final String TYPE_REGISTRY_RELATIONSHIP_NAME = TypeMarkerRegistry.TYPE_REGISTRY_RELATIONSHIP_NAME;
+    public static final String COUNTS_RELATIONSHIP_NAME = "TYPE_MARKER_COUNTS";
+    public static final RelationshipType INSTANCE_OF_RELATIONSHIP_TYPE = DynamicRelationshipType.withName("TYPE_MARKER_INSTANCE_OF");
+
+    private final EntityInstantiator<NodeBacked, Node> graphEntityInstantiator;
+    private final EntityTypeCache typeCache = new EntityTypeCache(NodeEntity.class);
+    private final TypeMarkerRegistry registry;
+    private final TypeCounter typeCounter;
+
+    public TypeMarkerNodeTypeRepresentationStrategy(GraphDatabaseService graphDb,
+                                                    EntityInstantiator<NodeBacked, Node> graphEntityInstantiator) {
+        this(graphDb, graphEntityInstantiator, new TypeMarkerRegistry(graphDb));
+    }
+
+    /**
+     * @param registry type id registry, can be shared with the {@link TypeMarkerRelationshipTypeRepresentationStrategy}
+     */
+    public TypeMarkerNodeTypeRepresentationStrategy(GraphDatabaseService graphDb,
+                                                    EntityInstantiator<NodeBacked, Node> graphEntityInstantiator,
+                                                    TypeMarkerRegistry registry) {
+        this.graphEntityInstantiator = graphEntityInstantiator;
+        this.registry = registry;
+        this.typeCounter = new TypeCounter(graphDb, COUNTS_RELATIONSHIP_NAME, null, true, true);
+    }
+
+    @Override
+    public void postEntityCreation(Node state, Class<? extends NodeBacked> type) {
+        final int[] typeIds = registry.typeIds(typeCache.getTypeHierarchy(type));
+        state.setProperty(TYPE_ID_PROPERTY_NAME, typeIds[0]);
+        state.setProperty(TYPE_IDS_PROPERTY_NAME, typeIds);
+        state.createRelationshipTo(registry.obtainTypeNode(typeIds[0]), INSTANCE_OF_RELATIONSHIP_TYPE);
+        for (String typeName : typeCache.getTypeHierarchy(type)) {
+            typeCounter.increment(typeName);
+        }
+    }
+
+    @Override
+    public void preEntityRemoval(Node state) {
+        final Relationship instanceOf = state.getSingleRelationship(INSTANCE_OF_RELATIONSHIP_TYPE, Direction.OUTGOING);
+        if (instanceOf != null) instanceOf.delete();
+        if (!state.hasProperty(TYPE_IDS_PROPERTY_NAME)) return;
+        for (int typeId : (int[]) state.removeProperty(TYPE_IDS_PROPERTY_NAME)) {
+            final String typeName = registry.typeName(typeId);
+            if (typeName != null) typeCounter.decrement(typeName);
+        }
+    }
+
+    @Override
+    public <U extends NodeBacked> ClosableIterable<U> findAll(final Class<U> clazz) {
+        final ClosableIterable<Node> states = findAllStates(clazz);
+        return new ClosableFilteringIterable<U>(new IterableWrapper<U, Node>(states) {
+            @Override
+            @SuppressWarnings("unchecked")
+            protected U underlyingObjectToObject(Node node) {
+                final Class<U> javaType = (Class<U>) getJavaType(node);
+                if (javaType == null) return null;
+                return graphEntityInstantiator.createEntityFromState(node, javaType);
+            }
+        }, new Predicate<U>() {
+            @Override
+            public boolean accept(U item) {
+                return item != null;
+            }
+        }, states);
+    }
+
+    @Override
+    public ClosableIterable<Node> findAllStates(Class<? extends NodeBacked> clazz) {
+        final List<Iterable<Node>> instances = new ArrayList<Iterable<Node>>();
+        for (Map.Entry<Integer, String> type : registry.registeredTypes().entrySet()) {
+            final Class<?> javaType = typeCache.getClassForName(type.getValue());
+            if (javaType == null || !clazz.isAssignableFrom(javaType)) continue;
+            final Node typeNode = registry.findTypeNode(type.getKey());
+            if (typeNode != null) instances.add(instancesOf(typeNode));
+        }
+        return new ClosableCombiningIterable<Node>(instances);
+    }
+
+    private Iterable<Node> instancesOf(Node typeNode) {
+        return new IterableWrapper<Node, Relationship>(typeNode.getRelationships(INSTANCE_OF_RELATIONSHIP_TYPE, Direction.INCOMING)) {
+            @Override
+            protected Node underlyingObjectToObject(Relationship instanceOf) {
+                return instanceOf.getStartNode();
+            }
+        };
+    }
+
+    @Override
+    public long count(Class<? extends NodeBacked> entityClass) {
+        if (typeCounter.isMaintained()) return typeCounter.count(entityClass.getName());
+        long count = 0;
+        for (Node node : findAllStates(entityClass)) {
+            count += 1;
+        }
+        return count;
+    }
+
+    /**
+     * removes the transaction event handler that maintains the instance counts, to be called when the strategy is
+     * no longer used
+     */
+    public void shutdown() {
+        typeCounter.shutdown();
+    }
+
+    @Override
+    public Class<? extends NodeBacked> getJavaType(Node node) {
+        if (node == null) throw new IllegalArgumentException("Node is null");
+        final Integer typeId = (Integer) node.getProperty(TYPE_ID_PROPERTY_NAME, null);
+        if (typeId == null) return null;
+        final String className = registry.typeName(typeId);
+        if (className == null) return null;
+        return typeCache.getClassForName(className);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U extends NodeBacked> U createEntity(Node state) {
+        Class<? extends NodeBacked> javaType = getJavaType(state);
+        if (javaType == null) {
+            throw new IllegalStateException("No type stored on node.");
+        }
+        return (U) graphEntityInstantiator.createEntityFromState(state, javaType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U extends NodeBacked> U createEntity(Node state, Class<U> type) {
+        Class<? extends NodeBacked> javaType = getJavaType(state);
+        if (javaType == null) {
+            throw new IllegalStateException("No type stored on node.");
+        }
+        if (type.isAssignableFrom(javaType)) {
+            return (U) graphEntityInstantiator.createEntityFromState(state, javaType);
+        }
+        throw new IllegalArgumentException(String.format("Entity is not of type: %s (was %s)", type, javaType));
+    }
+
+    @Override
+    public <U extends NodeBacked> U projectEntity(Node state, Class<U> type) {
+        return graphEntityInstantiator.createEntityFromState(state, type);
+    }
+
+    /**
+     * the instances of several types, there is nothing to close
+     */
+    private static class ClosableCombiningIterable<T> extends CombiningIterable<T> implements ClosableIterable<T> {
+        ClosableCombiningIterable(Iterable<Iterable<T>> iterables) {
+            super(iterables);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.neo4j.graphdb.*;
+import org.neo4j.kernel.AbstractGraphDatabase;
+
+import javax.transaction.InvalidTransactionException;
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns type names as compact integer ids for the type marker strategies. The ids are stored in a registry node
+ * attached to the reference node and kept in memory in both directions, a type name is only looked up in the
+ * registry node when it is not known yet. On request the registry also keeps one type node per type id, which
+ * the node strategy links the instances of the type to.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public class TypeMarkerRegistry {
+    public static final String TYPE_REGISTRY_RELATIONSHIP_NAME = "TYPE_MARKERS";
+    public static final String TYPE_NODE_RELATIONSHIP_NAME = "TYPE_MARKER_TYPE";
+    public static final String TYPE_NODE_ID_KEY = "__type_id__";
+    private static final String NEXT_TYPE_ID_KEY = "__next_type_id__";
+
+    private final GraphDatabaseService graphDb;
+    private final RelationshipType registryRelationshipType = DynamicRelationshipType.withName(TYPE_REGISTRY_RELATIONSHIP_NAME);
+    private final RelationshipType typeNodeRelationshipType = DynamicRelationshipType.withName(TYPE_NODE_RELATIONSHIP_NAME);
+
+    private final Map<String, Integer> idsByName = new HashMap<String, Integer>();
+    private final Map<Integer, String> namesById = new HashMap<Integer, String>();
+    private final Map<Integer, Long> typeNodeIds = new HashMap<Integer, Long>();
+    private long registryNodeId = -1;
+
+    public TypeMarkerRegistry(GraphDatabaseService graphDb) {
+        this.graphDb = graphDb;
+        Transaction tx = graphDb.beginTx();
+        try {
+            obtainRegistryNode();
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+    }
+
+    /**
+     * @return the ids of the given type names, new type names are registered
+     */
+    public int[] typeIds(List<String> typeNames) {
+        final int[] ids = new int[typeNames.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = typeId(typeNames.get(i));
+        }
+        return ids;
+    }
+
+    /**
+     * @return the id of the type name, registered if it is new
+     */
+    public int typeId(String typeName) {
+        final Integer typeId = lookupTypeId(typeName);
+        if (typeId != null) return typeId;
+        return registerType(typeName);
+    }
+
+    /**
+     * @return the id of the type name or null if it is not registered
+     */
+    public Integer lookupTypeId(String typeName) {
+        synchronized (idsByName) {
+            final Integer cached = idsByName.get(typeName);
+            if (cached != null) return cached;
+        }
+        final Node registryNode = getRegistryNode();
+        if (registryNode == null) return null;
+        final Integer typeId = (Integer) registryNode.getProperty(typeName, null);
+        if (typeId != null) remember(registryNode, typeName, typeId);
+        return typeId;
+    }
+
+    /**
+     * @return the type name for the id or null if it is not registered
+     */
+    public String typeName(int typeId) {
+        synchronized (idsByName) {
+            final String cached = namesById.get(typeId);
+            if (cached != null) return cached;
+        }
+        // an unknown id was registered by someone else, all ids are read at once so the next miss is served from memory
+        if (!readRegistry()) return null;
+        synchronized (idsByName) {
+            return namesById.get(typeId);
+        }
+    }
+
+    /**
+     * @return all registered type ids with their type names, including the ones registered by others
+     */
+    public Map<Integer, String> registeredTypes() {
+        readRegistry();
+        synchronized (idsByName) {
+            return new HashMap<Integer, String>(namesById);
+        }
+    }
+
+    private boolean readRegistry() {
+        final Node registryNode = getRegistryNode();
+        if (registryNode == null) return false;
+        for (String typeName : registryNode.getPropertyKeys()) {
+            if (NEXT_TYPE_ID_KEY.equals(typeName)) continue;
+            remember(registryNode, typeName, (Integer) registryNode.getProperty(typeName));
+        }
+        return true;
+    }
+
+    /**
+     * @return the type node of the type id or null if there is none yet
+     */
+    public Node findTypeNode(int typeId) {
+        synchronized (typeNodeIds) {
+            final Long nodeId = typeNodeIds.get(typeId);
+            if (nodeId != null) {
+                final Node typeNode = nodeIfTypeNode(nodeId, typeId);
+                if (typeNode != null) return typeNode;
+                typeNodeIds.remove(typeId); // removed from the store meanwhile
+            }
+        }
+        final Node registryNode = getRegistryNode();
+        if (registryNode == null) return null;
+        return findTypeNode(registryNode, typeId);
+    }
+
+    /**
+     * @return the type node of the type id, created in a separate transaction if there is none yet
+     */
+    public Node obtainTypeNode(final int typeId) {
+        final Node typeNode = findTypeNode(typeId);
+        if (typeNode != null) return typeNode;
+        final long nodeId = outsideOfCurrentTransaction(new Allocation<Long>() {
+            public Long allocate() {
+                return allocateTypeNode(typeId);
+            }
+        });
+        return graphDb.getNodeById(nodeId);
+    }
+
+    private Node findTypeNode(Node registryNode, int typeId) {
+        for (Relationship relationship : registryNode.getRelationships(typeNodeRelationshipType, Direction.OUTGOING)) {
+            final Node typeNode = relationship.getEndNode();
+            if (!Integer.valueOf(typeId).equals(typeNode.getProperty(TYPE_NODE_ID_KEY, null))) continue;
+            synchronized (typeNodeIds) {
+                typeNodeIds.put(typeId, typeNode.getId());
+            }
+            return typeNode;
+        }
+        return null;
+    }
+
+    private Node nodeIfTypeNode(long nodeId, int typeId) {
+        try {
+            final Node node = graphDb.getNodeById(nodeId);
+            return Integer.valueOf(typeId).equals(node.getProperty(TYPE_NODE_ID_KEY, null)) ? node : null;
+        } catch (NotFoundException e) {
+            return null;
+        }
+    }
+
+    private long allocateTypeNode(int typeId) {
+        Node typeNode;
+        Transaction tx = graphDb.beginTx();
+        try {
+            final Node registryNode = obtainRegistryNode();
+            SubReferenceNodeTypeRepresentationStrategy.acquireWriteLock(registryNode);
+            restoreKnownTypes(registryNode);
+            typeNode = findTypeNode(registryNode, typeId);
+            if (typeNode == null) {
+                typeNode = graphDb.createNode();
+                typeNode.setProperty(TYPE_NODE_ID_KEY, typeId);
+                registryNode.createRelationshipTo(typeNode, typeNodeRelationshipType);
+            }
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        synchronized (typeNodeIds) {
+            typeNodeIds.put(typeId, typeNode.getId());
+        }
+        return typeNode.getId();
+    }
+
+    private void remember(Node registryNode, String typeName, int typeId) {
+        synchronized (idsByName) {
+            if (registryNode.getId() != registryNodeId) {
+                // a registry written by someone else, its ids take precedence over the ones known so far
+                if (registryNodeId != -1 && !registryContainsKnownTypes(registryNode)) {
+                    idsByName.clear();
+                    namesById.clear();
+                }
+                registryNodeId = registryNode.getId();
+            }
+            idsByName.put(typeName, typeId);
+            namesById.put(typeId, typeName);
+        }
+    }
+
+    private boolean registryContainsKnownTypes(Node registryNode) {
+        for (Map.Entry<String, Integer> entry : idsByName.entrySet()) {
+            if (!entry.getValue().equals(registryNode.getProperty(entry.getKey(), null))) return false;
+        }
+        return true;
+    }
+
+    private int registerType(final String typeName) {
+        return outsideOfCurrentTransaction(new Allocation<Integer>() {
+            public Integer allocate() {
+                return allocateTypeId(typeName);
+            }
+        });
+    }
+
+    private interface Allocation<T> {
+        T allocate();
+    }
+
+    /**
+     * Allocates type ids and type nodes in a separate transaction, so that they are committed (and can be cached)
+     * independently of the outcome of the transaction that created the entity. The current transaction is suspended
+     * meanwhile.
+     */
+    private <T> T outsideOfCurrentTransaction(Allocation<T> allocation) {
+        final TransactionManager txManager = transactionManager();
+        if (txManager == null) return allocation.allocate();
+        final javax.transaction.Transaction suspended;
+        try {
+            suspended = txManager.suspend();
+        } catch (SystemException e) {
+            throw new IllegalStateException("Error suspending the transaction to register a type", e);
+        }
+        try {
+            return allocation.allocate();
+        } finally {
+            if (suspended != null) resume(txManager, suspended);
+        }
+    }
+
+    private void resume(TransactionManager txManager, javax.transaction.Transaction suspended) {
+        try {
+            txManager.resume(suspended);
+        } catch (InvalidTransactionException e) {
+            throw new IllegalStateException("Error resuming the transaction after registering a type", e);
+        } catch (SystemException e) {
+            throw new IllegalStateException("Error resuming the transaction after registering a type", e);
+        }
+    }
+
+    private TransactionManager transactionManager() {
+        if (!(graphDb instanceof AbstractGraphDatabase)) return null;
+        return ((AbstractGraphDatabase) graphDb).getConfig().getTxModule().getTxManager();
+    }
+
+    private int allocateTypeId(String typeName) {
+        Node registryNode;
+        Integer typeId;
+        Transaction tx = graphDb.beginTx();
+        try {
+            registryNode = obtainRegistryNode();
+            SubReferenceNodeTypeRepresentationStrategy.acquireWriteLock(registryNode);
+            restoreKnownTypes(registryNode);
+            typeId = (Integer) registryNode.getProperty(typeName, null);
+            if (typeId == null) {
+                typeId = (Integer) registryNode.getProperty(NEXT_TYPE_ID_KEY, 0);
+                registryNode.setProperty(typeName, typeId);
+                registryNode.setProperty(NEXT_TYPE_ID_KEY, typeId + 1);
+            }
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        remember(registryNode, typeName, typeId);
+        return typeId;
+    }
+
+    /**
+     * Writes the interned ids back into a registry node that was removed and recreated, so that ids already handed
+     * out by this instance stay valid.
+     */
+    private void restoreKnownTypes(Node registryNode) {
+        synchronized (idsByName) {
+            if (registryNode.getId() == registryNodeId) return;
+            int nextTypeId = (Integer) registryNode.getProperty(NEXT_TYPE_ID_KEY, 0);
+            for (Map.Entry<String, Integer> entry : idsByName.entrySet()) {
+                if (registryNode.hasProperty(entry.getKey())) continue;
+                registryNode.setProperty(entry.getKey(), entry.getValue());
+                nextTypeId = Math.max(nextTypeId, entry.getValue() + 1);
+            }
+            registryNode.setProperty(NEXT_TYPE_ID_KEY, nextTypeId);
+        }
+    }
+
+    private Node getRegistryNode() {
+        final Relationship registryRelationship = graphDb.getReferenceNode().getSingleRelationship(registryRelationshipType, Direction.OUTGOING);
+        return registryRelationship == null ? null : registryRelationship.getEndNode();
+    }
+
+    private Node obtainRegistryNode() {
+        Node registryNode = getRegistryNode();
+        if (registryNode != null) return registryNode;
+        final Node referenceNode = graphDb.getReferenceNode();
+        SubReferenceNodeTypeRepresentationStrategy.acquireWriteLock(referenceNode);
+        registryNode = getRegistryNode();
+        if (registryNode != null) return registryNode;
+        registryNode = graphDb.createNode();
+        referenceNode.createRelationshipTo(registryNode, registryRelationshipType);
+        return registryNode;
+    }
+}
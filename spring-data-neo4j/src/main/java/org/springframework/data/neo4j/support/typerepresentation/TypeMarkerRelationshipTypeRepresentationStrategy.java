@@ -0,0 +1,198 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.index.Index;
+import org.neo4j.helpers.Predicate;
+import org.neo4j.helpers.collection.ClosableIterable;
+import org.neo4j.helpers.collection.IterableWrapper;
+import org.springframework.data.neo4j.annotation.RelationshipEntity;
+import org.springframework.data.neo4j.core.RelationshipBacked;
+import org.springframework.data.neo4j.core.RelationshipTypeRepresentationStrategy;
+import org.springframework.data.persistence.EntityInstantiator;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Relationship counterpart of the {@link TypeMarkerNodeTypeRepresentationStrategy}, marks each entity relationship with
+ * the type ids of its {@link RelationshipEntity} class hierarchy. As relationships can't be linked to a type node, the
+ * per-type lookup uses a marker index with a single entry per relationship, the id of its concrete type.
+ * {@link #findAll(Class)} looks up all registered types assignable to the requested one.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public class TypeMarkerRelationshipTypeRepresentationStrategy implements RelationshipTypeRepresentationStrategy {
+
+    public static final String COUNTS_RELATIONSHIP_NAME = "TYPE_MARKER_RELATIONSHIP_COUNTS";
+    public static final String INDEX_NAME = "__type_markers__";
+
+    private static final ClosableIterable<Relationship> NO_RELATIONSHIPS = new ClosableIterable<Relationship>() {
+        public Iterator<Relationship> iterator() {
+            return Collections.<Relationship>emptyList().iterator();
+        }
+
+        public void close() {
+        }
+    };
+
+    private final GraphDatabaseService graphDb;
+    private final EntityInstantiator<RelationshipBacked, Relationship> relationshipEntityInstantiator;
+    private final EntityTypeCache typeCache = new EntityTypeCache(RelationshipEntity.class);
+    private final TypeMarkerRegistry registry;
+    private final TypeCounter typeCounter;
+
+    public TypeMarkerRelationshipTypeRepresentationStrategy(GraphDatabaseService graphDb,
+                                                            EntityInstantiator<RelationshipBacked, Relationship> relationshipEntityInstantiator) {
+        this(graphDb, relationshipEntityInstantiator, new TypeMarkerRegistry(graphDb));
+    }
+
+    /**
+     * @param registry type id registry, can be shared with the {@link TypeMarkerNodeTypeRepresentationStrategy}
+     */
+    public TypeMarkerRelationshipTypeRepresentationStrategy(GraphDatabaseService graphDb,
+                                                            EntityInstantiator<RelationshipBacked, Relationship> relationshipEntityInstantiator,
+                                                            TypeMarkerRegistry registry) {
+        this.graphDb = graphDb;
+        this.relationshipEntityInstantiator = relationshipEntityInstantiator;
+        this.registry = registry;
+        this.typeCounter = new TypeCounter(graphDb, COUNTS_RELATIONSHIP_NAME, null, false, true);
+    }
+
+    @Override
+    public void postEntityCreation(Relationship state, Class<? extends RelationshipBacked> type) {
+        final int[] typeIds = registry.typeIds(typeCache.getTypeHierarchy(type));
+        state.setProperty(TypeMarkerNodeTypeRepresentationStrategy.TYPE_ID_PROPERTY_NAME, typeIds[0]);
+        state.setProperty(TypeMarkerNodeTypeRepresentationStrategy.TYPE_IDS_PROPERTY_NAME, typeIds);
+        getMarkerIndex().add(state, TypeMarkerNodeTypeRepresentationStrategy.TYPE_ID_PROPERTY_NAME, typeIds[0]);
+        for (String typeName : typeCache.getTypeHierarchy(type)) {
+            typeCounter.increment(typeName);
+        }
+    }
+
+    @Override
+    public void preEntityRemoval(Relationship state) {
+        getMarkerIndex().remove(state);
+        if (!state.hasProperty(TypeMarkerNodeTypeRepresentationStrategy.TYPE_IDS_PROPERTY_NAME)) return;
+        for (int typeId : (int[]) state.removeProperty(TypeMarkerNodeTypeRepresentationStrategy.TYPE_IDS_PROPERTY_NAME)) {
+            final String typeName = registry.typeName(typeId);
+            if (typeName != null) typeCounter.decrement(typeName);
+        }
+    }
+
+    @Override
+    public <U extends RelationshipBacked> ClosableIterable<U> findAll(Class<U> clazz) {
+        final ClosableIterable<Relationship> states = findAllStates(clazz);
+        return new ClosableFilteringIterable<U>(new IterableWrapper<U, Relationship>(states) {
+            @Override
+            @SuppressWarnings("unchecked")
+            protected U underlyingObjectToObject(Relationship relationship) {
+                final Class<U> javaType = (Class<U>) getJavaType(relationship);
+                if (javaType == null) return null;
+                return relationshipEntityInstantiator.createEntityFromState(relationship, javaType);
+            }
+        }, new Predicate<U>() {
+            @Override
+            public boolean accept(U item) {
+                return item != null;
+            }
+        }, states);
+    }
+
+    @Override
+    public ClosableIterable<Relationship> findAllStates(Class<? extends RelationshipBacked> clazz) {
+        final StringBuilder typeIds = new StringBuilder();
+        for (Map.Entry<Integer, String> type : registry.registeredTypes().entrySet()) {
+            final Class<?> javaType = typeCache.getClassForName(type.getValue());
+            if (javaType == null || !clazz.isAssignableFrom(javaType)) continue;
+            if (typeIds.length() > 0) typeIds.append(" OR ");
+            typeIds.append(type.getKey());
+        }
+        if (typeIds.length() == 0) return NO_RELATIONSHIPS;
+        return new ClosableIndexHits<Relationship>(getMarkerIndex().query(TypeMarkerNodeTypeRepresentationStrategy.TYPE_ID_PROPERTY_NAME, typeIds.toString()));
+    }
+
+    @Override
+    public long count(Class<? extends RelationshipBacked> entityClass) {
+        if (typeCounter.isMaintained()) return typeCounter.count(entityClass.getName());
+        long count = 0;
+        final ClosableIterable<Relationship> states = findAllStates(entityClass);
+        try {
+            for (Relationship relationship : states) {
+                count += 1;
+            }
+        } finally {
+            states.close();
+        }
+        return count;
+    }
+
+    /**
+     * removes the transaction event handler that maintains the instance counts, to be called when the strategy is
+     * no longer used
+     */
+    public void shutdown() {
+        typeCounter.shutdown();
+    }
+
+    @Override
+    public Class<? extends RelationshipBacked> getJavaType(Relationship relationship) {
+        if (relationship == null) throw new IllegalArgumentException("Relationship is null");
+        final Integer typeId = (Integer) relationship.getProperty(TypeMarkerNodeTypeRepresentationStrategy.TYPE_ID_PROPERTY_NAME, null);
+        if (typeId == null) return null;
+        final String className = registry.typeName(typeId);
+        if (className == null) return null;
+        return typeCache.getClassForName(className);
+    }
+
+    private Index<Relationship> getMarkerIndex() {
+        return graphDb.index().forRelationships(INDEX_NAME);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U extends RelationshipBacked> U createEntity(Relationship state) {
+        Class<? extends RelationshipBacked> javaType = getJavaType(state);
+        if (javaType == null) {
+            throw new IllegalStateException("No type stored on relationship.");
+        }
+        return (U) relationshipEntityInstantiator.createEntityFromState(state, javaType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U extends RelationshipBacked> U createEntity(Relationship state, Class<U> type) {
+        Class<? extends RelationshipBacked> javaType = getJavaType(state);
+        if (javaType == null) {
+            throw new IllegalStateException("No type stored on relationship.");
+        }
+        if (type.isAssignableFrom(javaType)) {
+            return (U) relationshipEntityInstantiator.createEntityFromState(state, javaType);
+        }
+        throw new IllegalArgumentException(String.format("Entity is not of type: %s (was %s)", type, javaType));
+    }
+
+    @Override
+    public <U extends RelationshipBacked> U projectEntity(Relationship state, Class<U> type) {
+        return relationshipEntityInstantiator.createEntityFromState(state, type);
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.data.neo4j.support.typerepresentation;
 
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicRelationshipType;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
@@ -31,16 +33,32 @@ public class TypeRepresentationStrategyFactory {
     public TypeRepresentationStrategyFactory(GraphDatabaseService graphDatabaseService,
                                              EntityInstantiator<NodeBacked, Node> graphEntityInstantiator,
                                              EntityInstantiator<RelationshipBacked, Relationship> relationshipEntityInstantiator) {
+        this(graphDatabaseService, graphEntityInstantiator, relationshipEntityInstantiator, Strategy.Indexed);
+    }
+
+    /**
+     * @param defaultStrategy strategy used for stores that don't contain any type information yet
+     */
+    public TypeRepresentationStrategyFactory(GraphDatabaseService graphDatabaseService,
+                                             EntityInstantiator<NodeBacked, Node> graphEntityInstantiator,
+                                             EntityInstantiator<RelationshipBacked, Relationship> relationshipEntityInstantiator,
+                                             Strategy defaultStrategy) {
         this.graphDatabaseService = graphDatabaseService;
         this.graphEntityInstantiator = graphEntityInstantiator;
         this.relationshipEntityInstantiator = relationshipEntityInstantiator;
-        strategy = chooseStrategy();
+        strategy = chooseStrategy(defaultStrategy);
     }
 
-    private Strategy chooseStrategy() {
+    private Strategy chooseStrategy(Strategy defaultStrategy) {
         if (isAlreadyIndexed()) return Strategy.Indexed;
+        if (isAlreadyTypeMarked()) return Strategy.TypeMarker;
         if (isAlreadySubRef()) return Strategy.SubRef;
-        return Strategy.Indexed;
+        return defaultStrategy;
+    }
+
+    private boolean isAlreadyTypeMarked() {
+        return graphDatabaseService.getReferenceNode().hasRelationship(
+                DynamicRelationshipType.withName(TypeMarkerNodeTypeRepresentationStrategy.TYPE_REGISTRY_RELATIONSHIP_NAME), Direction.OUTGOING);
     }
 
     private boolean isAlreadyIndexed() {
@@ -64,7 +82,7 @@ public class TypeRepresentationStrategyFactory {
         return strategy.getRelationshipTypeRepresentationStrategy(graphDatabaseService, relationshipEntityInstantiator);
     }
 
-    private enum Strategy {
+    public enum Strategy {
         SubRef {
             @Override
             public NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy(GraphDatabaseService graphDatabaseService, EntityInstantiator<NodeBacked, Node> graphEntityInstantiator) {
@@ -87,6 +105,17 @@ public class TypeRepresentationStrategyFactory {
                 return new IndexingRelationshipTypeRepresentationStrategy(graphDatabaseService, relationshipEntityInstantiator);
             }
         },
+        TypeMarker {
+            @Override
+            public NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy(GraphDatabaseService graphDatabaseService, EntityInstantiator<NodeBacked, Node> graphEntityInstantiator) {
+                return new TypeMarkerNodeTypeRepresentationStrategy(graphDatabaseService, graphEntityInstantiator);
+            }
+
+            @Override
+            public RelationshipTypeRepresentationStrategy getRelationshipTypeRepresentationStrategy(GraphDatabaseService graphDatabaseService, EntityInstantiator<RelationshipBacked, Relationship> relationshipEntityInstantiator) {
+                return new TypeMarkerRelationshipTypeRepresentationStrategy(graphDatabaseService, relationshipEntityInstantiator);
+            }
+        },
         Noop {
             @Override
             public NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy(GraphDatabaseService graphDatabaseService, EntityInstantiator<NodeBacked, Node> graphEntityInstantiator) {
@@ -86,6 +86,18 @@ public interface Neo4jOperations {
      */
     Relationship createRelationship(Node startNode, Node endNode, RelationshipType type, Map<String,Object> props);
 
+    /**
+     * Creates the given relationships, skipping those whose start node already has a relationship of the same type to
+     * the end node. The existing relationships of each start node are read once per batch. With a transaction manager
+     * every batch is committed in its own transaction, so this should be called outside of a running transaction
+     * (otherwise all batches become part of it).
+     *
+     * @param relationships to create
+     * @param batchSize number of relationships handled per transaction
+     * @return number of newly created relationships
+     */
+    long createRelationships(Iterable<RelationshipSpec> relationships, int batchSize);
+
     /**
      * Indexes the given field and value for the element.
      * @param indexName Name of the index, will be checked against existing indexes according to the given element
@@ -25,13 +25,20 @@ import org.springframework.data.neo4j.annotation.QueryType;
 import org.springframework.data.neo4j.conversion.QueryResult;
 import org.springframework.data.neo4j.conversion.QueryResultBuilder;
 import org.springframework.data.neo4j.core.GraphDatabase;
+import org.springframework.data.neo4j.support.RelationshipLookup;
 import org.springframework.data.neo4j.support.query.QueryEngine;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class Neo4jTemplate implements Neo4jOperations {
 
@@ -178,6 +185,73 @@ public class Neo4jTemplate implements Neo4jOperations {
         });
     }
 
+    @Override
+    public long createRelationships(final Iterable<RelationshipSpec> relationships, final int batchSize) {
+        notNull(relationships, "relationships");
+        if (batchSize < 1) throw new InvalidDataAccessApiUsageException("Batch size must be at least 1 but was " + batchSize);
+        long created = 0;
+        final Iterator<RelationshipSpec> it = relationships.iterator();
+        while (it.hasNext()) {
+            final List<RelationshipSpec> batch = new ArrayList<RelationshipSpec>(batchSize);
+            while (batch.size() < batchSize && it.hasNext()) {
+                batch.add(it.next());
+            }
+            created += exec(new GraphCallback<Integer>() {
+                @Override
+                public Integer doWithGraph(GraphDatabase graph) throws Exception {
+                    return createMissingRelationships(graph, batch);
+                }
+            });
+        }
+        return created;
+    }
+
+    private int createMissingRelationships(GraphDatabase graph, List<RelationshipSpec> batch) {
+        final Map<Node, List<RelationshipSpec>> byStartNode = new LinkedHashMap<Node, List<RelationshipSpec>>();
+        for (RelationshipSpec spec : batch) {
+            List<RelationshipSpec> specs = byStartNode.get(spec.getStartNode());
+            if (specs == null) {
+                specs = new ArrayList<RelationshipSpec>();
+                byStartNode.put(spec.getStartNode(), specs);
+            }
+            specs.add(spec);
+        }
+        int created = 0;
+        for (Map.Entry<Node, List<RelationshipSpec>> entry : byStartNode.entrySet()) {
+            final Node startNode = entry.getKey();
+            final List<RelationshipSpec> specs = entry.getValue();
+            if (specs.size() == 1) {
+                final RelationshipSpec spec = specs.get(0);
+                if (RelationshipLookup.findRelationship(startNode, spec.getEndNode(), spec.getType(), Direction.OUTGOING) == null) {
+                    graph.createRelationship(startNode, spec.getEndNode(), spec.getType(), spec.getProperties());
+                    created++;
+                }
+                continue;
+            }
+            final Set<String> wanted = new HashSet<String>();
+            for (RelationshipSpec spec : specs) {
+                wanted.add(key(spec.getEndNode(), spec.getType()));
+            }
+            // single pass over the existing relationships of the start node
+            final Set<String> existing = new HashSet<String>();
+            for (Relationship relationship : startNode.getRelationships(Direction.OUTGOING)) {
+                final String key = key(relationship.getEndNode(), relationship.getType());
+                if (wanted.contains(key)) existing.add(key);
+            }
+            for (RelationshipSpec spec : specs) {
+                if (existing.add(key(spec.getEndNode(), spec.getType()))) {
+                    graph.createRelationship(startNode, spec.getEndNode(), spec.getType(), spec.getProperties());
+                    created++;
+                }
+            }
+        }
+        return created;
+    }
+
+    private static String key(Node endNode, RelationshipType type) {
+        return endNode.getId() + ":" + type.name();
+    }
+
     public QueryResult<Map<String, Object>> query(String statement, Map<String, Object> params) {
         notNull(statement, "statement");
         return queryEngineFor(QueryType.Cypher).query(statement, params);
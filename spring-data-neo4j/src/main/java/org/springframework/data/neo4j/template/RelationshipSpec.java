@@ -0,0 +1,73 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.template;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+
+import java.util.Map;
+
+/**
+ * Describes a relationship to be created by {@link Neo4jOperations#createRelationships(Iterable, int)}.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public class RelationshipSpec {
+    private final Node startNode;
+    private final Node endNode;
+    private final RelationshipType type;
+    private final Map<String, Object> properties;
+
+    /**
+     * @param properties initial properties of the relationship, might be null
+     */
+    public RelationshipSpec(Node startNode, Node endNode, RelationshipType type, Map<String, Object> properties) {
+        if (startNode == null) throw new IllegalArgumentException("Start node is null");
+        if (endNode == null) throw new IllegalArgumentException("End node is null");
+        if (type == null) throw new IllegalArgumentException("Relationship type is null");
+        this.startNode = startNode;
+        this.endNode = endNode;
+        this.type = type;
+        this.properties = properties;
+    }
+
+    public static RelationshipSpec relationship(Node startNode, Node endNode, RelationshipType type) {
+        return new RelationshipSpec(startNode, endNode, type, null);
+    }
+
+    public Node getStartNode() {
+        return startNode;
+    }
+
+    public Node getEndNode() {
+        return endNode;
+    }
+
+    public RelationshipType getType() {
+        return type;
+    }
+
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%s)-[:%s]->(%s)", startNode, type.name(), endNode);
+    }
+}
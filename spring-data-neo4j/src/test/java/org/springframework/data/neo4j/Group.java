@@ -40,6 +40,9 @@ public class Group {
     @RelatedTo(type = "persons", elementClass = Person.class)
     private Iterable<Person> readOnlyPersons;
 
+    @RelatedTo(type = "persons", elementClass = Person.class, fetch = true)
+    private Iterable<Person> fetchedPersons;
+
     @GraphTraversal(traversalBuilder = PeopleTraversalBuilder.class, elementClass = Person.class, params = "persons")
     private Iterable<Person> people;
 
@@ -100,6 +103,10 @@ public class Group {
         return readOnlyPersons;
     }
 
+    public Iterable<Person> getFetchedPersons() {
+        return fetchedPersons;
+    }
+
     public void setReadOnlyPersons(Iterable<Person> p) {
         readOnlyPersons = p;
     }
@@ -72,9 +72,15 @@ public class Person {
 	@RelatedTo(type = "boss", direction = Direction.INCOMING)
 	private Person boss;
 
+	@RelatedTo(type = "mentor", fetch = true)
+	private Person mentor;
+
 	@RelatedToVia(type = "knows", elementClass = Friendship.class)
 	private Iterable<Friendship> friendships;
 
+	@RelatedToVia(type = "knows", elementClass = Friendship.class, fetch = true)
+	private Iterable<Friendship> fetchedFriendships;
+
     @Query(value = "start person=(%start) match (person)<-[:boss]-(boss) return boss")
     private Person bossByQuery;
 
@@ -160,6 +166,14 @@ public class Person {
 		this.boss = boss;
 	}
 
+	public Person getMentor() {
+		return mentor;
+	}
+
+	public void setMentor(Person mentor) {
+		this.mentor = mentor;
+	}
+
 	@Override
 	public String toString() {
 		return name;
@@ -173,6 +187,10 @@ public class Person {
 		friendships = f;
 	}
 
+	public Iterable<Friendship> getFetchedFriendships() {
+		return fetchedFriendships;
+	}
+
 	public Friendship knows(Person p) {
         return (Friendship)relateTo(p, Friendship.class,"knows");
 	}
@@ -51,4 +51,10 @@ public interface PersonRepository extends GraphRepository<Person>, NamedIndexRep
     Page<Person> findAllTeamMembersPaged(@Param("team") Group team, Pageable page);
     @Query("start team=(%team) match (team)-[:persons]->(member) return member")
     Iterable<Person> findAllTeamMembersSorted(@Param("team") Group team, Sort sort);
+
+    Iterable<Person> findByNameAndAgeGreaterThan(String name, int age);
+
+    Iterable<Person> findByBossName(String name);
+
+    Iterable<Person> findByBoss(Person boss);
 }
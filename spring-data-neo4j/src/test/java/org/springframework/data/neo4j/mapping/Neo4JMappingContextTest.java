@@ -17,8 +17,12 @@ package org.springframework.data.neo4j.mapping;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.data.mapping.model.MappingException;
 import org.springframework.data.neo4j.Person;
+import org.springframework.data.neo4j.annotation.NodeEntity;
+import org.springframework.data.neo4j.annotation.RelatedTo;
 
+import java.util.Collection;
 import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
@@ -53,4 +57,21 @@ public class Neo4JMappingContextTest {
         assertEquals(false,nameProperty.getIndexInfo().isFulltext());
         assertEquals(false,nameProperty.isRelationship());
     }
+
+    @Test public void checkFetchedReadOnlyRelationship() {
+        final Neo4JPersistentProperty property = mappingContext.getPersistentEntity(org.springframework.data.neo4j.Group.class).getPersistentProperty("fetchedPersons");
+        assertEquals(true, property.getRelationshipInfo().isFetch());
+        assertEquals(true, property.getRelationshipInfo().isReadonly());
+    }
+
+    @Test(expected = MappingException.class)
+    public void fetchIsRejectedForModifiableCollections() {
+        mappingContext.getPersistentEntity(FetchedCollection.class);
+    }
+
+    @NodeEntity
+    static class FetchedCollection {
+        @RelatedTo(type = "persons", fetch = true)
+        Collection<Person> persons;
+    }
 }
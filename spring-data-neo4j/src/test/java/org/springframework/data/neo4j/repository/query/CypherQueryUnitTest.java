@@ -0,0 +1,127 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.neo4j.annotation.Indexed;
+import org.springframework.data.neo4j.annotation.NodeEntity;
+import org.springframework.data.neo4j.annotation.RelatedTo;
+import org.springframework.data.neo4j.core.Direction;
+import org.springframework.data.neo4j.mapping.Neo4JMappingContext;
+import org.springframework.data.repository.query.parser.PartTree;
+
+/**
+ * @author mh
+ * @since 17.10.11
+ */
+public class CypherQueryUnitTest {
+
+    Neo4JMappingContext context;
+
+    @Before
+    public void setUp() {
+        context = new Neo4JMappingContext();
+        context.setInitialEntitySet(Collections.singleton(Person.class));
+        context.afterPropertiesSet();
+    }
+
+    private CypherQuery query(String methodName) {
+        return new CypherQuery(new PartTree(methodName, Person.class), Person.class, context, true);
+    }
+
+    @Test
+    public void startsAtIndexForIndexedProperty() {
+        assertThat(query("findByName").toString(), is("start person=(Person,name,\"%_0\") return person"));
+    }
+
+    @Test
+    public void restrictsFurtherPropertiesInWhereClause() {
+        assertThat(query("findByNameAndAgeGreaterThan").toString(),
+                is("start person=(Person,name,\"%_0\") where person.age > %_1 return person"));
+    }
+
+    @Test
+    public void startsAtIndexOfRelatedEntity() {
+        assertThat(query("findByGroupName").toString(),
+                is("start group=(Group,name,\"%_0\") match (person)<-[:members]-(group) return person"));
+    }
+
+    @Test
+    public void startsAtRelatedEntity() {
+        assertThat(query("findByGroupAndAge").toString(),
+                is("start group=(%_0) match (person)<-[:members]-(group) where person.age = %_1 return person"));
+    }
+
+    @Test
+    public void startsAtTypeIndexForOrQueries() {
+        assertThat(query("findByAgeOrName").toString(),
+                is("start person=(__types__,className,\"" + Person.class.getName() + "\") where (person.age = %_0) or (person.name = %_1) return person"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void requiresStartWithoutTypeIndex() {
+        new CypherQuery(new PartTree("findByAge", Person.class), Person.class, context, false);
+    }
+
+    @Test
+    public void rendersParameters() {
+        final Map<String, Object> params = query("findByNameAndAgeGreaterThan").resolveParams(asList((Object) "Mi\"chael", 10));
+        assertThat(params.get("_0"), is((Object) "Mi\\\"chael"));
+        assertThat(params.get("_1"), is((Object) "10"));
+        assertThat(query("findByAgeAndNickname").resolveParams(asList((Object) 10, "Mike")).get("_1"), is((Object) "\"Mike\""));
+        assertThat(query("findByAgeAndNicknameLike").resolveParams(asList((Object) 10, "M.k*")).get("_1"), is((Object) "M\\.k.*"));
+    }
+
+    @Test
+    public void qualifiesSortProperties() {
+        assertThat(query("findByName").qualify("age"), is("person.age"));
+        assertThat(query("findByName").qualify("group.name"), is("group.name"));
+    }
+
+    @NodeEntity
+    static class Person {
+
+        @Indexed
+        private String name;
+
+        private String nickname;
+
+        private int age;
+
+        @RelatedTo(type = "members", direction = Direction.INCOMING)
+        private Group group;
+    }
+
+    @NodeEntity
+    static class Group {
+
+        @Indexed
+        private String name;
+
+        @RelatedTo(type = "members", direction = Direction.OUTGOING)
+        private Set<Person> members;
+    }
+}
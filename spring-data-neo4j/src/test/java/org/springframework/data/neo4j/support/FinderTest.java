@@ -26,7 +26,9 @@ import org.neo4j.helpers.collection.IteratorUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.neo4j.*;
+import org.springframework.data.neo4j.repository.BatchDeleteCallback;
 import org.springframework.data.neo4j.support.node.Neo4jHelper;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -109,6 +111,17 @@ public class FinderTest {
         assertThat(team, is(testTeam.sdg));
     }
 
+    @Test
+    @Transactional
+    public void testDerivedFinders() {
+        final TestTeam testTeam = new TestTeam();
+        testTeam.createSDGTeam();
+        assertEquals(asList(testTeam.michael), IteratorUtil.addToCollection(personRepository.findByNameAndAgeGreaterThan("Michael", 30), new ArrayList<Person>()));
+        assertEquals(false, personRepository.findByNameAndAgeGreaterThan("Michael", 40).iterator().hasNext());
+        assertEquals(new HashSet<Person>(asList(testTeam.michael, testTeam.david)), IteratorUtil.addToCollection(personRepository.findByBossName("Emil"), new HashSet<Person>()));
+        assertEquals(new HashSet<Person>(asList(testTeam.michael, testTeam.david)), IteratorUtil.addToCollection(personRepository.findByBoss(testTeam.emil), new HashSet<Person>()));
+    }
+
     @Test
     @Transactional
     public void testSaveManyPeople() {
@@ -141,6 +154,23 @@ public class FinderTest {
         personRepository.delete(asList(p1,p2));
         assertEquals("people deleted", false, personRepository.findAll().iterator().hasNext());
     }
+    @Test
+    public void testDeleteAllInBatches() {
+        cleanDb();
+        for (int i = 0; i < 5; i++) {
+            persistedPerson("Person" + i, i);
+        }
+        final List<Integer> batches = new ArrayList<Integer>();
+        long deleted = personRepository.deleteAll(2, new BatchDeleteCallback() {
+            public void batchCommitted(int batchCount, long totalCount, long elapsedMillis) {
+                batches.add(batchCount);
+            }
+        });
+        assertEquals(5, deleted);
+        assertEquals(asList(2, 2, 1), batches);
+        assertEquals("people deleted", false, personRepository.findAll().iterator().hasNext());
+        assertEquals("removed from index", 0, graphDatabaseContext.getIndex(Person.class, Person.NAME_INDEX).get("name", "Person0").size());
+    }
 
     @Test
     @Transactional
@@ -218,6 +248,19 @@ public class FinderTest {
         assertPage(page2, 2, 2, 3);
 	}
 
+    @Test
+    @Transactional
+    public void testFindPagedAndSorted() {
+        Person p1=Person.persistedPerson("person1", 13);
+        Person p2=Person.persistedPerson("person2", 11);
+        Person p3=Person.persistedPerson("person3", 12);
+        assertEquals(asList(p2, p3, p1), IteratorUtil.addToCollection(personRepository.findAll(new Sort("age")), new ArrayList<Person>()));
+        final Page<Person> page0 = personRepository.findAll(new PageRequest(0, 2, Sort.Direction.DESC, "name"));
+        final Page<Person> page1 = personRepository.findAll(new PageRequest(1, 2, Sort.Direction.DESC, "name"));
+        assertPage(page0, 0, 2, 3, p3, p2);
+        assertPage(page1, 1, 2, 3, p1);
+    }
+
     private void assertPage(Page<Person> page0, int pageNumber, int totalPages, final int totalElements, Person... people) {
         assertEquals("content count",people.length,page0.getNumberOfElements());
         assertEquals("page number",pageNumber,page0.getNumber());
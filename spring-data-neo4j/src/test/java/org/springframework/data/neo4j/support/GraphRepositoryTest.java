@@ -115,6 +115,17 @@ public class GraphRepositoryTest {
         assertEquals(asList(testTeam.michael, testTeam.emil), asCollection(teamMemberPage1));
         assertThat(teamMemberPage1.isFirstPage(), is(true));
     }
+    @Test
+    @Transactional
+    public void testFindPagedCountsTotal() {
+        final Page<Person> firstPage = personRepository.findAllTeamMembersPaged(testTeam.sdg, new PageRequest(0, 2, Sort.Direction.ASC, "member.name"));
+        assertEquals(3, firstPage.getTotalElements());
+        assertThat(firstPage.hasNextPage(), is(true));
+        final Page<Person> lastPage = personRepository.findAllTeamMembersPaged(testTeam.sdg, new PageRequest(1, 2, Sort.Direction.ASC, "member.name"));
+        assertEquals(3, lastPage.getTotalElements());
+        assertThat(lastPage.isLastPage(), is(true));
+    }
+
     @Test
     @Transactional
     public void testFindPagedNull() {
@@ -132,6 +143,14 @@ public class GraphRepositoryTest {
         assertEquals(asList(testTeam.michael, testTeam.emil, testTeam.david), asCollection(teamMembers));
     }
 
+    @Test
+    @Transactional
+    public void testFindSortedByMultipleProperties() {
+        final Sort sort = new Sort(new Sort.Order(Sort.Direction.DESC, "member.age"), new Sort.Order(Sort.Direction.ASC, "member.name"));
+        Iterable<Person> teamMembers = personRepository.findAllTeamMembersSorted(testTeam.sdg, sort);
+        assertEquals(asList(testTeam.michael, testTeam.emil, testTeam.david), asCollection(teamMembers));
+    }
+
     @Test
     @Transactional
     public void testFindSortedNull() {
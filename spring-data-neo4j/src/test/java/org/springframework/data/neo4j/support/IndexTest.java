@@ -33,6 +33,7 @@ import org.springframework.data.neo4j.annotation.NodeEntity;
 import org.springframework.data.neo4j.repository.DirectGraphRepositoryFactory;
 import org.springframework.data.neo4j.repository.GraphRepository;
 import org.springframework.data.neo4j.support.node.Neo4jHelper;
+import org.springframework.data.neo4j.template.Neo4jTemplate;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.transaction.BeforeTransaction;
@@ -132,6 +133,57 @@ public class IndexTest {
         assertNull("Group.name removed from index", found);
     }
 
+    @Test
+    public void testOnlyLastValueOfTransactionIsIndexed() {
+        cleanDb();
+        Group group;
+        Transaction tx = graphDatabaseContext.beginTx();
+        try {
+            group = new Group().persist();
+            group.setName(NAME_VALUE);
+            group.setName(NAME_VALUE2);
+            group.setName(NAME_VALUE3);
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        assertEquals(group, groupFinder.findByPropertyValue(NAME, NAME_VALUE3));
+        assertNull("intermediate value not indexed", groupFinder.findByPropertyValue(NAME, NAME_VALUE));
+    }
+
+    @Test
+    @Transactional
+    public void testIndexedValueIsFoundWithinTransaction() {
+        Group group = new Group().persist();
+        group.setName(NAME_VALUE);
+        assertEquals(group, groupFinder.findByPropertyValue(NAME, NAME_VALUE));
+    }
+
+    @Test
+    @Transactional
+    public void testDeletedEntitiesAreRemovedFromIndex() {
+        Group group = new Group().persist();
+        group.setName(NAME_VALUE);
+        Group group2 = new Group().persist();
+        group2.setName(NAME_VALUE2);
+        groupRepository.delete(Arrays.asList(group, group2));
+        assertNull(groupFinder.findByPropertyValue(NAME, NAME_VALUE));
+        assertNull(groupFinder.findByPropertyValue(NAME, NAME_VALUE2));
+    }
+
+    @Test
+    @Transactional
+    public void testIndexedValueIsFoundByTemplateLookupWithinTransaction() {
+        final String indexName = getGroupIndex().getName();
+        Group group = new Group().persist();
+        group.setName(NAME_VALUE);
+        final DelegatingGraphDatabase graphDatabase = new DelegatingGraphDatabase(graphDatabaseContext.getGraphDatabaseService());
+        graphDatabase.setIndexChangeBuffer(graphDatabaseContext.getIndexChangeBuffer());
+        final Neo4jTemplate template = new Neo4jTemplate(graphDatabase);
+        final Node found = template.<Node>lookup(indexName, NAME, NAME_VALUE).to(Node.class).single();
+        assertEquals(group.getPersistentState(), found);
+    }
+
     private Index<Node> getGroupIndex() {
         return graphDatabaseContext.getIndex(Group.class);
     }
@@ -131,12 +131,43 @@ public class IndexingNodeTypeRepresentationStrategyTest {
 				IteratorUtil.addToCollection(nodeTypeRepresentationStrategy.findAll(Thing.class), new HashSet<Thing>()));
 	}
 
+	@Test
+	@Transactional
+	public void testFindAllStatesSkipsStaleIndexEntries() throws Exception {
+		Node stale = graphDatabaseService.createNode();
+		stale.setProperty(IndexingNodeTypeRepresentationStrategy.TYPE_PROPERTY_NAME, "unknown.Type");
+		Index<Node> typesIndex = graphDatabaseService.index().forNodes(IndexingNodeTypeRepresentationStrategy.INDEX_NAME);
+		typesIndex.add(stale, IndexingNodeTypeRepresentationStrategy.INDEX_KEY, Thing.class.getName());
+		typesIndex.add(graphDatabaseService.createNode(), IndexingNodeTypeRepresentationStrategy.INDEX_KEY, Thing.class.getName());
+		assertEquals(set(node(thing), node(subThing)),
+				IteratorUtil.addToCollection(nodeTypeRepresentationStrategy.findAllStates(Thing.class), new HashSet<Node>()));
+	}
+
 	@Test
 	@Transactional
 	public void testCount() throws Exception {
 		assertEquals(2, nodeTypeRepresentationStrategy.count(Thing.class));
 	}
 
+	@Test
+	public void testCountAfterRemovalAndRebuild() throws Exception {
+        manualCleanDb();
+        createThingsAndLinks();
+        Transaction tx = graphDatabaseService.beginTx();
+        try {
+            nodeTypeRepresentationStrategy.preEntityRemoval(node(thing));
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+		assertEquals(1, nodeTypeRepresentationStrategy.count(Thing.class));
+		assertEquals(1, nodeTypeRepresentationStrategy.count(SubThing.class));
+
+        nodeTypeRepresentationStrategy.rebuildCounts();
+		assertEquals(2, nodeTypeRepresentationStrategy.count(Thing.class));
+		assertEquals(1, nodeTypeRepresentationStrategy.count(SubThing.class));
+	}
+
 	@Test
 	@Transactional
 	public void testGetJavaType() throws Exception {
@@ -0,0 +1,158 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.neo4j.support;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.ImpermanentGraphDatabase;
+import org.springframework.data.neo4j.support.node.NodeEntityInstantiator;
+import org.springframework.data.neo4j.support.relationship.RelationshipEntityInstantiator;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingNodeTypeRepresentationStrategy;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingRelationshipTypeRepresentationStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks that the indexing strategies keep instance counts on a store they start with, without a rebuild.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public class IndexingTypeRepresentationStrategyCountsTest {
+
+    private ImpermanentGraphDatabase graphDatabaseService;
+
+    @Before
+    public void setUp() throws Exception {
+        graphDatabaseService = new ImpermanentGraphDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.shutdown();
+    }
+
+    @Test
+    public void testNodeCountsAreKeptFromTheStart() throws Exception {
+        final IndexingNodeTypeRepresentationStrategy strategy = new IndexingNodeTypeRepresentationStrategy(graphDatabaseService, new NodeEntityInstantiator());
+        final List<Node> nodes = new ArrayList<Node>();
+        Transaction tx = graphDatabaseService.beginTx();
+        try {
+            for (int i = 0; i < 3; i++) {
+                final Node node = graphDatabaseService.createNode();
+                strategy.postEntityCreation(node, IndexingNodeTypeRepresentationStrategyTest.SubThing.class);
+                nodes.add(node);
+            }
+            final Node thing = graphDatabaseService.createNode();
+            strategy.postEntityCreation(thing, IndexingNodeTypeRepresentationStrategyTest.Thing.class);
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        tx = graphDatabaseService.beginTx();
+        try {
+            strategy.preEntityRemoval(nodes.get(0));
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        final Node countsNode = countsNode(IndexingNodeTypeRepresentationStrategy.COUNTS_RELATIONSHIP_NAME);
+        assertEquals(3L, countsNode.getProperty(IndexingNodeTypeRepresentationStrategyTest.Thing.class.getName()));
+        assertEquals(2L, countsNode.getProperty(IndexingNodeTypeRepresentationStrategyTest.SubThing.class.getName()));
+        assertEquals(3, strategy.count(IndexingNodeTypeRepresentationStrategyTest.Thing.class));
+        assertEquals(2, strategy.count(IndexingNodeTypeRepresentationStrategyTest.SubThing.class));
+
+        tx = graphDatabaseService.beginTx();
+        try {
+            graphDatabaseService.index().forNodes(IndexingNodeTypeRepresentationStrategy.INDEX_NAME).remove(nodes.get(1));
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        assertEquals("count is not taken from the type index", 3, strategy.count(IndexingNodeTypeRepresentationStrategyTest.Thing.class));
+    }
+
+    @Test
+    public void testRelationshipCountsAreKeptFromTheStart() throws Exception {
+        final IndexingRelationshipTypeRepresentationStrategy strategy = new IndexingRelationshipTypeRepresentationStrategy(graphDatabaseService, new RelationshipEntityInstantiator());
+        final List<Relationship> relationships = new ArrayList<Relationship>();
+        Transaction tx = graphDatabaseService.beginTx();
+        try {
+            final Node start = graphDatabaseService.createNode();
+            for (int i = 0; i < 3; i++) {
+                final Relationship relationship = start.createRelationshipTo(graphDatabaseService.createNode(), DynamicRelationshipType.withName("link"));
+                strategy.postEntityCreation(relationship, IndexingRelationshipTypeRepresentationStrategyTest.Link.class);
+                relationships.add(relationship);
+            }
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        tx = graphDatabaseService.beginTx();
+        try {
+            strategy.preEntityRemoval(relationships.get(0));
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        final Node countsNode = countsNode(IndexingRelationshipTypeRepresentationStrategy.COUNTS_RELATIONSHIP_NAME);
+        assertEquals(2L, countsNode.getProperty(IndexingRelationshipTypeRepresentationStrategyTest.Link.class.getName()));
+        assertEquals(2, strategy.count(IndexingRelationshipTypeRepresentationStrategyTest.Link.class));
+    }
+
+    @Test
+    public void testCountsNodeIsCreatedByTheFirstCommitAndShutdownStopsCounting() throws Exception {
+        final IndexingNodeTypeRepresentationStrategy strategy = new IndexingNodeTypeRepresentationStrategy(graphDatabaseService, new NodeEntityInstantiator());
+        assertNull("no counts node before the first commit", graphDatabaseService.getReferenceNode().getSingleRelationship(
+                DynamicRelationshipType.withName(IndexingNodeTypeRepresentationStrategy.COUNTS_RELATIONSHIP_NAME), Direction.OUTGOING));
+        createThing(strategy);
+        assertEquals(1L, countsNode(IndexingNodeTypeRepresentationStrategy.COUNTS_RELATIONSHIP_NAME).getProperty(IndexingNodeTypeRepresentationStrategyTest.Thing.class.getName()));
+
+        strategy.shutdown();
+        createThing(strategy);
+        assertEquals("not counted after shutdown", 1L, countsNode(IndexingNodeTypeRepresentationStrategy.COUNTS_RELATIONSHIP_NAME).getProperty(IndexingNodeTypeRepresentationStrategyTest.Thing.class.getName()));
+        assertEquals("falls back to the type index", 2, strategy.count(IndexingNodeTypeRepresentationStrategyTest.Thing.class));
+    }
+
+    private void createThing(IndexingNodeTypeRepresentationStrategy strategy) {
+        Transaction tx = graphDatabaseService.beginTx();
+        try {
+            strategy.postEntityCreation(graphDatabaseService.createNode(), IndexingNodeTypeRepresentationStrategyTest.Thing.class);
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+    }
+
+    private Node countsNode(String countsRelationshipName) {
+        final Relationship countsRelationship = graphDatabaseService.getReferenceNode().getSingleRelationship(DynamicRelationshipType.withName(countsRelationshipName), Direction.OUTGOING);
+        assertNotNull("counts node was created", countsRelationship);
+        return countsRelationship.getEndNode();
+    }
+}
@@ -16,21 +16,25 @@
 
 package org.springframework.data.neo4j.support;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.neo4j.helpers.collection.IteratorUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.neo4j.Person;
-import org.springframework.data.neo4j.Person;
+import org.springframework.data.neo4j.support.query.CypherQueryExecutor;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.internal.matchers.IsCollectionContaining.hasItems;
 
@@ -42,6 +46,10 @@ import static org.junit.internal.matchers.IsCollectionContaining.hasItems;
 @ContextConfiguration(locations = {"classpath:org/springframework/data/neo4j/support/Neo4jGraphPersistenceTest-context.xml"})
 @Transactional
 public class NodeEntityQueryTest {
+    private static final int QUERY_READS = 1000;
+    private static final String BOSS_QUERY = "start person=(%start) match (person)<-[:boss]-(boss) return boss";
+    private final Log log = LogFactory.getLog(getClass());
+
     @Autowired
     GraphDatabaseContext graphDatabaseContext;
     private TestTeam testTeam;
@@ -77,4 +85,25 @@ public class NodeEntityQueryTest {
     public void testQueryVariableStringResult() throws Exception {
         assertEquals(testTeam.emil.getName(),michael.getBossName());
     }
+
+    @Test
+    public void testQueryExecutorIsShared() throws Exception {
+        assertSame(graphDatabaseContext.getCypherQueryExecutor(), graphDatabaseContext.getCypherQueryExecutor());
+    }
+
+    @Test
+    public void compareQueryFieldReadThroughput() throws Exception {
+        final Map<String, Object> params = Collections.<String, Object>singletonMap("start", michael.getNodeId());
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < QUERY_READS; i++) {
+            assertEquals(testTeam.emil, new CypherQueryExecutor(graphDatabaseContext).queryForObject(BOSS_QUERY, Person.class, params));
+        }
+        final long executorPerRead = System.currentTimeMillis() - start;
+        start = System.currentTimeMillis();
+        for (int i = 0; i < QUERY_READS; i++) {
+            assertEquals(testTeam.emil, michael.getBossByQuery());
+        }
+        final long sharedExecutor = System.currentTimeMillis() - start;
+        log.info(String.format("read @Query field %d times: executor per read %d ms, shared executor %d ms", QUERY_READS, executorPerRead, sharedExecutor));
+    }
 }
@@ -32,6 +32,7 @@ import org.springframework.data.neo4j.Group;
 import static org.springframework.data.neo4j.Person.persistedPerson;
 
 import org.springframework.data.neo4j.Person;
+import org.springframework.data.neo4j.core.RelationshipTypeRepresentationStrategy;
 import org.springframework.data.neo4j.repository.DirectGraphRepositoryFactory;
 import org.springframework.data.neo4j.support.node.Neo4jHelper;
 
@@ -73,6 +74,45 @@ public class NodeEntityRelationshipTest {
         assertEquals(spouse, p.getSpouse());
     }
 
+    @Test
+    @Transactional
+    public void testFetchedRelationshipIsKeptUntilWritten() {
+        Person p = persistedPerson("Michael", 35);
+        Person mentor = persistedPerson("Emil", 31);
+        p.setMentor(mentor);
+        assertEquals(mentor, p.getMentor());
+        p.getPersistentState().getSingleRelationship(DynamicRelationshipType.withName("mentor"), Direction.OUTGOING).delete();
+        assertEquals("fetched value doesn't read the graph again", mentor, p.getMentor());
+        p.setMentor(null);
+        Assert.assertNull(p.getMentor());
+    }
+
+    @Test
+    @Transactional
+    public void testFetchedReadOnlyRelationshipsAreKept() {
+        Person michael = persistedPerson("Michael", 35);
+        Person david = persistedPerson("David", 25);
+        Group group = new Group().persist();
+        group.setPersons(new HashSet<Person>(Arrays.asList(michael)));
+        final Iterable<Person> fetched = group.getFetchedPersons();
+        assertEquals(Collections.singleton(michael), fetched);
+        Assert.assertSame("fetched value is kept", fetched, group.getFetchedPersons());
+        group.getPersons().add(david);
+        assertEquals("fetched value doesn't read the graph again", Collections.singleton(michael), group.getFetchedPersons());
+        assertEquals(new HashSet<Person>(Arrays.asList(michael, david)), IteratorUtil.addToCollection(group.getReadOnlyPersons(), new HashSet<Person>()));
+    }
+
+    @Test
+    @Transactional
+    public void testFetchedRelationshipEntitiesAreKept() {
+        Person michael = persistedPerson("Michael", 35);
+        Person david = persistedPerson("David", 25);
+        Friendship friendship = michael.knows(david);
+        final Iterable<Friendship> fetched = michael.getFetchedFriendships();
+        assertEquals(Collections.singleton(friendship), fetched);
+        Assert.assertSame("fetched value is kept", fetched, michael.getFetchedFriendships());
+    }
+
     @Test
     @Transactional
     public void testCreateRelationshipWithAnnotationOnSet() {
@@ -165,6 +205,85 @@ public class NodeEntityRelationshipTest {
         Assert.assertTrue(Set.class.isAssignableFrom(personsFromGet.getClass()));
     }
 
+    @Test
+    @Transactional
+    public void testManagedSetWritesSingleChangesToGraph() {
+        Person michael = persistedPerson("Michael", 35);
+        Person david = persistedPerson("David", 25);
+        Group group = new Group().persist();
+        group.setPersons(new HashSet<Person>(Arrays.asList(michael)));
+        Collection<Person> persons = group.getPersons();
+        assertEquals(1, persons.size());
+        Assert.assertTrue(persons.add(david));
+        Assert.assertFalse(persons.add(david));
+        assertEquals(2, persons.size());
+        Assert.assertTrue(persons.contains(david));
+        assertEquals(1, IteratorUtil.count(david.getPersistentState().getRelationships(DynamicRelationshipType.withName("persons"), Direction.INCOMING)));
+        for (Iterator<Person> it = persons.iterator(); it.hasNext(); ) {
+            if (it.next().equals(michael)) it.remove();
+        }
+        assertEquals(Collections.singleton(david), group.getPersons());
+        assertEquals(1, persons.size());
+    }
+
+    @Test
+    @Transactional
+    public void testRelateToDenseNode() {
+        final int degree = 10000;
+        final int lookups = 1000;
+        Person hub = persistedPerson("Hub", 35);
+        Person michael = persistedPerson("Michael", 36);
+        final Node hubNode = hub.getPersistentState();
+        final RelationshipType knows = DynamicRelationshipType.withName("knows");
+        for (int i = 0; i < degree; i++) {
+            hubNode.createRelationshipTo(graphDatabaseContext.createNode(), knows);
+        }
+        final Relationship relationship = hub.relateTo(michael, "knows");
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < lookups; i++) {
+            assertEquals(relationship, hub.relateTo(michael, "knows"));
+        }
+        log.info(String.format("%d relateTo lookups on node with %d relationships took %d ms", lookups, degree + 1, System.currentTimeMillis() - start));
+        assertEquals(1, IteratorUtil.count(michael.getPersistentState().getRelationships(knows, Direction.INCOMING)));
+        hub.removeRelationshipTo(michael, "knows");
+        Assert.assertNull(hub.getRelationshipTo(michael, "knows"));
+    }
+
+    @Test
+    @Transactional
+    public void testRelateToAll() {
+        Person michael = persistedPerson("Michael", 35);
+        Person david = persistedPerson("David", 25);
+        Person emil = persistedPerson("Emil", 32);
+        Friendship existing = michael.knows(david);
+        final RelationshipTypeRepresentationStrategy strategy = graphDatabaseContext.getRelationshipTypeRepresentationStrategy();
+        final long friendshipsBefore = strategy.count(Friendship.class);
+        List<Friendship> friendships = michael.relateToAll(Arrays.asList(david, emil, david), Friendship.class, "knows");
+        assertEquals("only the created relationship is registered", friendshipsBefore + 1, strategy.count(Friendship.class));
+        assertEquals(3, friendships.size());
+        assertEquals(existing, friendships.get(0));
+        assertEquals(emil, friendships.get(1).getPerson2());
+        assertEquals(friendships.get(0), friendships.get(2));
+        assertEquals(2, IteratorUtil.count(michael.getPersistentState().getRelationships(DynamicRelationshipType.withName("knows"), Direction.OUTGOING)));
+    }
+
+    @Test
+    @Transactional
+    public void testManagedSetSkipsNodesReachedByMultipleRelationships() {
+        Person michael = persistedPerson("Michael", 35);
+        Person david = persistedPerson("David", 25);
+        Group group = new Group().persist();
+        group.setPersons(new HashSet<Person>(Arrays.asList(michael, david)));
+        group.getPersistentState().createRelationshipTo(michael.getPersistentState(), DynamicRelationshipType.withName("persons"));
+        Collection<Person> persons = group.getPersons();
+        assertEquals(2, persons.size());
+        assertEquals(2, IteratorUtil.count(persons.iterator()));
+        assertEquals(new HashSet<Person>(Arrays.asList(michael, david)), new HashSet<Person>(persons));
+        Assert.assertTrue(persons.remove(michael));
+        assertEquals(1, persons.size());
+        assertEquals(0, IteratorUtil.count(michael.getPersistentState().getRelationships(DynamicRelationshipType.withName("persons"), Direction.INCOMING)));
+    }
+
     @Test
     public void testAddToOneToManyRelationshipOutsideOfTransaction() {
         Person michael = persistedPerson("Michael", 35);
@@ -228,6 +347,45 @@ public class NodeEntityRelationshipTest {
         assertEquals(new HashSet<Friendship>(Arrays.asList(f2, f3)), IteratorUtil.addToCollection(p.getFriendships().iterator(), new HashSet<Friendship>()));
     }
 
+    @Test
+    @Transactional
+    public void testReadRelationshipEntityViews() {
+        Person p = persistedPerson("Michael", 35);
+        Person p2 = persistedPerson("David", 25);
+        Person p3 = persistedPerson("Emil", 32);
+        Friendship f2 = p.knows(p2);
+        f2.setYears(2);
+        Friendship f3 = p.knows(p3);
+        f3.setYears(3);
+        Assert.assertTrue(p.getFriendships() instanceof GraphBackedEntityIterableWrapper);
+        final int[] created = new int[1];
+        final Iterable<Friendship> friendships = new GraphBackedEntityIterableWrapper<Relationship, Friendship>(
+                p.getPersistentState().getRelationships(DynamicRelationshipType.withName("knows"), Direction.OUTGOING), Friendship.class, graphDatabaseContext) {
+            @Override
+            protected Friendship underlyingObjectToObject(Relationship relationship) {
+                created[0]++;
+                return super.underlyingObjectToObject(relationship);
+            }
+        };
+        int years = 0;
+        Set<Friendship> entities = new HashSet<Friendship>();
+        EntityStateView<Relationship, Friendship> first = null;
+        for (EntityStateView<Relationship, Friendship> view : EntityStateView.viewsOf(friendships)) {
+            if (first == null) first = view;
+            Assert.assertSame("view is reused", first, view);
+            final int value = (Integer) view.getProperty("years", 0);
+            years += value;
+            if (value == 3) {
+                final Friendship entity = view.toEntity();
+                Assert.assertSame(entity, view.toEntity());
+                entities.add(entity);
+            }
+        }
+        assertEquals(5, years);
+        assertEquals("no entities created while iterating the views", 0, created[0]);
+        assertEquals(Collections.singleton(f3), entities);
+    }
+
     @Test(expected = InvalidDataAccessApiUsageException.class)
     @Transactional
     public void testRelationshipSetEntitiesShouldThrowException() {
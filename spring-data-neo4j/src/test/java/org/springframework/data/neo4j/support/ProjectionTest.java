@@ -20,6 +20,9 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.index.Index;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.neo4j.Group;
 import org.springframework.data.neo4j.Group;
@@ -64,4 +67,27 @@ public class ProjectionTest {
         assertEquals("nameds node name property","developers", named.getPersistentState().getProperty("name"));
     }
 
+    @Test
+    public void testRemovingProjectedEntityRemovesIndexEntriesOfStoredType() {
+        Group group;
+        Transaction tx = graphDatabaseContext.beginTx();
+        try {
+            group = new Group().persist();
+            group.setName("projected");
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        final Index<Node> groupIndex = graphDatabaseContext.getIndex(Group.class);
+        assertEquals(1, groupIndex.get("name", "projected").size());
+        tx = graphDatabaseContext.beginTx();
+        try {
+            graphDatabaseContext.removeNodeEntity((Named) group.projectTo(Named.class));
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        assertEquals(0, groupIndex.get("name", "projected").size());
+    }
+
 }
@@ -0,0 +1,142 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.ImpermanentGraphDatabase;
+import org.springframework.data.neo4j.support.node.NodeEntityInstantiator;
+import org.springframework.data.neo4j.support.typerepresentation.SubReferenceNodeTypeRepresentationStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that striped instance counters stay exact under concurrent creation and compares the creation
+ * throughput of a single counter with the striped counters.
+ *
+ * @author mh
+ * @since 17.10.11
+ */
+public class SubReferenceNodeTypeRepresentationStrategyStripingTest {
+
+    private static final Log log = LogFactory.getLog(SubReferenceNodeTypeRepresentationStrategyStripingTest.class);
+
+    private static final int THREADS = 8;
+    private static final int CREATIONS_PER_THREAD = 250;
+
+    private ImpermanentGraphDatabase graphDatabaseService;
+
+    @Before
+    public void setUp() throws Exception {
+        graphDatabaseService = new ImpermanentGraphDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.shutdown();
+    }
+
+    @Test
+    public void stripedCountersAreExactAfterConcurrentCreation() throws Exception {
+        final SubReferenceNodeTypeRepresentationStrategy strategy = createStrategy(THREADS);
+        createConcurrently(strategy);
+        assertEquals(THREADS * CREATIONS_PER_THREAD, strategy.count(SubReferenceNodeTypeRepresentationStrategyTest.SubThing.class));
+        assertEquals(THREADS * CREATIONS_PER_THREAD, strategy.count(SubReferenceNodeTypeRepresentationStrategyTest.Thing.class));
+    }
+
+    @Test
+    public void stripedCountersAreExactAfterRemovalFromOtherThread() throws Exception {
+        final SubReferenceNodeTypeRepresentationStrategy strategy = createStrategy(THREADS);
+        final List<Node> nodes = createConcurrently(strategy);
+        Transaction tx = graphDatabaseService.beginTx();
+        try {
+            for (Node node : nodes.subList(0, CREATIONS_PER_THREAD)) {
+                strategy.preEntityRemoval(node);
+            }
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        final int expected = (THREADS - 1) * CREATIONS_PER_THREAD;
+        assertEquals(expected, strategy.count(SubReferenceNodeTypeRepresentationStrategyTest.SubThing.class));
+        assertEquals(expected, strategy.count(SubReferenceNodeTypeRepresentationStrategyTest.Thing.class));
+    }
+
+    @Test
+    public void compareCreationThroughput() throws Exception {
+        final long singleCounter = timeCreation(createStrategy(1));
+        final long stripedCounter = timeCreation(createStrategy(THREADS));
+        log.info(String.format("%d threads created %d entities each: single counter %d ms, %d counter stripes %d ms",
+                THREADS, CREATIONS_PER_THREAD, singleCounter, THREADS, stripedCounter));
+    }
+
+    private SubReferenceNodeTypeRepresentationStrategy createStrategy(int counterStripes) {
+        return new SubReferenceNodeTypeRepresentationStrategy(graphDatabaseService, new NodeEntityInstantiator(), counterStripes);
+    }
+
+    private long timeCreation(SubReferenceNodeTypeRepresentationStrategy strategy) throws Exception {
+        long start = System.currentTimeMillis();
+        createConcurrently(strategy);
+        return System.currentTimeMillis() - start;
+    }
+
+    private List<Node> createConcurrently(final SubReferenceNodeTypeRepresentationStrategy strategy) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<List<Node>>> futures = new ArrayList<Future<List<Node>>>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(new Callable<List<Node>>() {
+                    public List<Node> call() throws Exception {
+                        final List<Node> created = new ArrayList<Node>(CREATIONS_PER_THREAD);
+                        for (int j = 0; j < CREATIONS_PER_THREAD; j++) {
+                            created.add(createSubThingNode(strategy));
+                        }
+                        return created;
+                    }
+                }));
+            }
+            final List<Node> result = new ArrayList<Node>(THREADS * CREATIONS_PER_THREAD);
+            for (Future<List<Node>> future : futures) {
+                result.addAll(future.get());
+            }
+            return result;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Node createSubThingNode(SubReferenceNodeTypeRepresentationStrategy strategy) {
+        Transaction tx = graphDatabaseService.beginTx();
+        try {
+            final Node node = graphDatabaseService.createNode();
+            strategy.postEntityCreation(node, SubReferenceNodeTypeRepresentationStrategyTest.SubThing.class);
+            tx.success();
+            return node;
+        } finally {
+            tx.finish();
+        }
+    }
+}
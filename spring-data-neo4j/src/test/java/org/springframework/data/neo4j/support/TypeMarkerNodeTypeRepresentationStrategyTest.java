@@ -0,0 +1,281 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.helpers.collection.IteratorUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.annotation.NodeEntity;
+import org.springframework.data.neo4j.core.NodeTypeRepresentationStrategy;
+import org.springframework.data.neo4j.support.node.Neo4jHelper;
+import org.springframework.data.neo4j.support.node.NodeEntityInstantiator;
+import org.springframework.data.neo4j.support.relationship.RelationshipEntityInstantiator;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingNodeTypeRepresentationStrategy;
+import org.springframework.data.neo4j.support.typerepresentation.SubReferenceNodeTypeRepresentationStrategy;
+import org.springframework.data.neo4j.support.typerepresentation.TypeMarkerNodeTypeRepresentationStrategy;
+import org.springframework.data.neo4j.support.typerepresentation.TypeMarkerRelationshipTypeRepresentationStrategy;
+import org.springframework.test.context.CleanContextCacheTestExecutionListener;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.test.context.transaction.BeforeTransaction;
+import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author mh
+ * @since 17.10.11
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:org/springframework/data/neo4j/support/Neo4jGraphPersistenceTest-context.xml",
+        "classpath:org/springframework/data/neo4j/support/TypeMarkerTypeRepresentationStrategyOverride-context.xml"})
+@TestExecutionListeners({CleanContextCacheTestExecutionListener.class, DependencyInjectionTestExecutionListener.class, TransactionalTestExecutionListener.class})
+public class TypeMarkerNodeTypeRepresentationStrategyTest {
+
+    private static final Log log = LogFactory.getLog(TypeMarkerNodeTypeRepresentationStrategyTest.class);
+    private static final int CREATIONS = 5000;
+
+	@Autowired
+	private GraphDatabaseService graphDatabaseService;
+	@Autowired
+	private TypeMarkerNodeTypeRepresentationStrategy nodeTypeRepresentationStrategy;
+
+	private Thing thing;
+	private SubThing subThing;
+
+    @BeforeTransaction
+	public void cleanDb() {
+		Neo4jHelper.cleanDb(graphDatabaseService);
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		if (thing == null) {
+			createThings();
+		}
+	}
+
+	@Test
+	@Transactional
+	public void testPostEntityCreation() throws Exception {
+		assertFalse(graphDatabaseService.index().existsForNodes(IndexingNodeTypeRepresentationStrategy.INDEX_NAME));
+		int[] thingIds = (int[]) node(thing).getProperty(TypeMarkerNodeTypeRepresentationStrategy.TYPE_IDS_PROPERTY_NAME);
+		int[] subThingIds = (int[]) node(subThing).getProperty(TypeMarkerNodeTypeRepresentationStrategy.TYPE_IDS_PROPERTY_NAME);
+		assertEquals(1, thingIds.length);
+		assertEquals(2, subThingIds.length);
+		assertEquals(thingIds[0], subThingIds[1]);
+		assertEquals(subThingIds[0], node(subThing).getProperty(TypeMarkerNodeTypeRepresentationStrategy.TYPE_ID_PROPERTY_NAME));
+	}
+
+	@Test
+	@Transactional
+	public void testFindAll() throws Exception {
+		assertEquals(new HashSet<Thing>(Arrays.asList(thing, subThing)), IteratorUtil.addToCollection(nodeTypeRepresentationStrategy.findAll(Thing.class), new HashSet<Thing>()));
+		assertEquals(Collections.singletonList(subThing), IteratorUtil.asCollection(nodeTypeRepresentationStrategy.findAll(SubThing.class)));
+	}
+
+	@Test
+	@Transactional
+	public void testFindAllStates() throws Exception {
+		assertEquals(new HashSet<Node>(Arrays.asList(node(thing), node(subThing))), IteratorUtil.addToCollection(nodeTypeRepresentationStrategy.findAllStates(Thing.class), new HashSet<Node>()));
+		assertEquals(Collections.emptyList(), IteratorUtil.asCollection(nodeTypeRepresentationStrategy.findAllStates(OtherThing.class)));
+	}
+
+	@Test
+	@Transactional
+	public void testUnmarkedNodeHasNoJavaType() throws Exception {
+		assertNull(nodeTypeRepresentationStrategy.getJavaType(graphDatabaseService.createNode()));
+	}
+
+	@Test
+	@Transactional
+	public void testCount() throws Exception {
+		assertEquals(2, nodeTypeRepresentationStrategy.count(Thing.class));
+		assertEquals(1, nodeTypeRepresentationStrategy.count(SubThing.class));
+	}
+
+	@Test
+	public void testPreEntityRemoval() throws Exception {
+        cleanDb();
+        createThings();
+        Transaction tx = graphDatabaseService.beginTx();
+        try {
+            nodeTypeRepresentationStrategy.preEntityRemoval(node(thing));
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+		assertEquals(1, nodeTypeRepresentationStrategy.count(Thing.class));
+		assertEquals(1, nodeTypeRepresentationStrategy.count(SubThing.class));
+		assertEquals(Collections.singletonList(subThing), IteratorUtil.asCollection(nodeTypeRepresentationStrategy.findAll(Thing.class)));
+	}
+
+	@Test
+	public void testTypeRegisteredInRolledBackTransactionStaysKnown() throws Exception {
+        Node node;
+        Transaction tx = graphDatabaseService.beginTx();
+        try {
+            node = graphDatabaseService.createNode();
+            nodeTypeRepresentationStrategy.postEntityCreation(node, OtherThing.class);
+            assertEquals(OtherThing.class, nodeTypeRepresentationStrategy.getJavaType(node));
+            tx.failure();
+        } finally {
+            tx.finish();
+        }
+        final TypeMarkerNodeTypeRepresentationStrategy other = new TypeMarkerNodeTypeRepresentationStrategy(graphDatabaseService, new NodeEntityInstantiator());
+        tx = graphDatabaseService.beginTx();
+        try {
+            node = graphDatabaseService.createNode();
+            other.postEntityCreation(node, OtherThing.class);
+            assertEquals(OtherThing.class, nodeTypeRepresentationStrategy.getJavaType(node));
+        } finally {
+            tx.finish();
+        }
+	}
+
+	@Test
+	public void testRelationshipTypeMarkers() throws Exception {
+        final TypeMarkerRelationshipTypeRepresentationStrategy strategy = new TypeMarkerRelationshipTypeRepresentationStrategy(graphDatabaseService, new RelationshipEntityInstantiator());
+        Relationship relationship;
+        Transaction tx = graphDatabaseService.beginTx();
+        try {
+            relationship = graphDatabaseService.createNode().createRelationshipTo(graphDatabaseService.createNode(), DynamicRelationshipType.withName("link"));
+            strategy.postEntityCreation(relationship, IndexingRelationshipTypeRepresentationStrategyTest.SubLink.class);
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        assertEquals(IndexingRelationshipTypeRepresentationStrategyTest.SubLink.class, strategy.getJavaType(relationship));
+        assertEquals(1, strategy.count(IndexingRelationshipTypeRepresentationStrategyTest.Link.class));
+        assertEquals(Collections.singletonList(relationship), IteratorUtil.asCollection(strategy.findAllStates(IndexingRelationshipTypeRepresentationStrategyTest.Link.class)));
+        assertEquals(1, IteratorUtil.count(strategy.findAll(IndexingRelationshipTypeRepresentationStrategyTest.SubLink.class)));
+        tx = graphDatabaseService.beginTx();
+        try {
+            strategy.preEntityRemoval(relationship);
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        assertEquals(0, strategy.count(IndexingRelationshipTypeRepresentationStrategyTest.Link.class));
+        assertEquals(0, IteratorUtil.count(strategy.findAllStates(IndexingRelationshipTypeRepresentationStrategyTest.Link.class)));
+	}
+
+	@Test
+	@Transactional
+	public void testGetJavaType() throws Exception {
+		assertEquals(Thing.class, nodeTypeRepresentationStrategy.getJavaType(node(thing)));
+		assertEquals(SubThing.class, nodeTypeRepresentationStrategy.getJavaType(node(subThing)));
+	}
+
+	@Test
+	@Transactional
+	public void testCreateEntityAndSpecifyType() throws Exception {
+        Thing newThing = nodeTypeRepresentationStrategy.createEntity(node(subThing), Thing.class);
+        assertEquals(subThing, newThing);
+    }
+
+	@Test
+	public void compareCreationThroughput() throws Exception {
+        final NodeEntityInstantiator instantiator = new NodeEntityInstantiator();
+        final long indexed = timeCreation(new IndexingNodeTypeRepresentationStrategy(graphDatabaseService, instantiator));
+        final long subRef = timeCreation(new SubReferenceNodeTypeRepresentationStrategy(graphDatabaseService, instantiator));
+        final long typeMarker = timeCreation(nodeTypeRepresentationStrategy);
+        log.info(String.format("created %d entities: indexed %d ms, subref %d ms, type marker %d ms", CREATIONS, indexed, subRef, typeMarker));
+	}
+
+    private long timeCreation(NodeTypeRepresentationStrategy strategy) {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < CREATIONS; i++) {
+            Transaction tx = graphDatabaseService.beginTx();
+            try {
+                strategy.postEntityCreation(graphDatabaseService.createNode(), SubThing.class);
+                tx.success();
+            } finally {
+                tx.finish();
+            }
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+	private static Node node(Thing thing) {
+		return thing.getPersistentState();
+	}
+
+	private void createThings() {
+		Transaction tx = graphDatabaseService.beginTx();
+		try {
+            Node n1 = graphDatabaseService.createNode();
+            thing = new Thing(n1);
+			nodeTypeRepresentationStrategy.postEntityCreation(n1, Thing.class);
+            thing.setName("thing");
+            Node n2 = graphDatabaseService.createNode();
+            subThing = new SubThing(n2);
+			nodeTypeRepresentationStrategy.postEntityCreation(n2, SubThing.class);
+            subThing.setName("subThing");
+			tx.success();
+		} finally {
+			tx.finish();
+		}
+	}
+
+	@NodeEntity
+	public static class Thing {
+		String name;
+
+        public Thing(Node node) {
+            setPersistentState(node);
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+	public static class SubThing extends Thing {
+        public SubThing(Node node) {
+            super(node);
+        }
+    }
+
+	public static class OtherThing extends Thing {
+        public OtherThing(Node node) {
+            super(node);
+        }
+    }
+}
@@ -42,6 +42,7 @@ import java.util.Map;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 
 /**
@@ -90,6 +91,19 @@ public class GremlinQueryEngineTest {
         assertEquals(asList(testTeam.simpleRowFor(michael, "person"), testTeam.simpleRowFor(testTeam.david, "person")), result);
     }
 
+    @Test
+    @Transactional
+    public void testRepeatedQueryUsesNewParams() throws Exception {
+        final String queryString = "g.v(person).name";
+        assertEquals(michael.getName(), queryEngine.query(queryString, MapUtil.map("person", idFor(michael))).to(String.class).single());
+        assertEquals(testTeam.david.getName(), queryEngine.query(queryString, MapUtil.map("person", idFor(testTeam.david))).to(String.class).single());
+    }
+
+    @Test
+    public void testQueryEngineIsShared() throws Exception {
+        assertSame(queryEngine, graphDatabase.queryEngineFor(QueryType.Gremlin));
+    }
+
     /*
     @Test
     public void testQueryListOfTypeNode() throws Exception {
@@ -20,6 +20,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.neo4j.graphdb.Node;
+import org.neo4j.helpers.collection.ClosableIterable;
 import org.neo4j.helpers.collection.IteratorUtil;
 import org.neo4j.helpers.collection.MapUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +28,8 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.data.neo4j.Person;
 import org.springframework.data.neo4j.Personality;
 import org.springframework.data.neo4j.annotation.QueryType;
+import org.springframework.data.neo4j.conversion.Handler;
+import org.springframework.data.neo4j.conversion.QueryResultBuilder;
 import org.springframework.data.neo4j.conversion.ResultConverter;
 import org.springframework.data.neo4j.core.GraphDatabase;
 import org.springframework.data.neo4j.core.NodeBacked;
@@ -40,11 +43,16 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.transaction.BeforeTransaction;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -108,6 +116,73 @@ public class QueryEngineTest {
         assertEquals(asList(testTeam.emil),result);
     }
 
+    @Test
+    public void testQueryListOfTypePersonInBatches() throws Exception {
+        final String queryString = "start person=(%michael,%david,%emil) return person";
+        final Map<String, Object> params = MapUtil.map("michael", idFor(michael), "david", idFor(testTeam.david), "emil", idFor(testTeam.emil));
+        final Collection<Person> result = IteratorUtil.asCollection(queryEngine.query(queryString, params).to(Person.class, new EntityResultConverter(graphDatabaseContext)).inBatches(2));
+
+        assertEquals(asList(michael, testTeam.david, testTeam.emil),result);
+    }
+
+    @Test
+    public void testParsedQueriesAreCached() throws Exception {
+        final CypherQueryCache queryCache = new CypherQueryCache(10);
+        final CypherQueryEngine cypherQueryEngine = new CypherQueryEngine(graphDatabaseContext.getGraphDatabaseService(), null, queryCache);
+        final String queryString = "start person=(name_index,name,\"" + michael.getName() + "\") return person.name";
+        assertEquals(michael.getName(), cypherQueryEngine.query(queryString, null).to(String.class).single());
+        assertEquals(michael.getName(), cypherQueryEngine.query(queryString, null).to(String.class).single());
+        assertEquals(1, queryCache.getMisses());
+        assertEquals(1, queryCache.getHits());
+    }
+
+    @Test
+    public void testQueriesWithSubstitutedParamsAreNotCached() throws Exception {
+        final CypherQueryCache queryCache = new CypherQueryCache(10);
+        final CypherQueryEngine cypherQueryEngine = new CypherQueryEngine(graphDatabaseContext.getGraphDatabaseService(), null, queryCache);
+        final String queryString = "start person=(name_index,name,\"%name\") return person.name";
+        assertEquals(michael.getName(), cypherQueryEngine.query(queryString, michaelsName()).to(String.class).single());
+        assertEquals(testTeam.david.getName(), cypherQueryEngine.query(queryString, MapUtil.map("name", testTeam.david.getName())).to(String.class).single());
+        assertEquals(0, queryCache.size());
+    }
+
+    @Test
+    public void testReplaceParamsKeepsUnknownPlaceholders() throws Exception {
+        assertEquals("start n=(1) where n.name = \"$x\" and n.age > %age return n",
+                QueryResultBuilder.replaceParams("start n=(%start) where n.name = \"%name\" and n.age > %age return n", MapUtil.map("start", 1, "name", "$x")));
+    }
+
+    @Test
+    public void testResultIsClosedWhenExhausted() throws Exception {
+        final boolean[] closed = new boolean[1];
+        final ClosableIterable<Integer> rows = new ClosableIterable<Integer>() {
+            public Iterator<Integer> iterator() {
+                return asList(1, 2).iterator();
+            }
+
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        final Iterator<Integer> it = new QueryResultBuilder<Integer>(rows).to(Integer.class).iterator();
+        assertEquals(Integer.valueOf(1), it.next());
+        assertEquals(Integer.valueOf(2), it.next());
+        assertFalse(closed[0]);
+        assertFalse(it.hasNext());
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    public void testHandleChunks() throws Exception {
+        final List<List<Integer>> chunks = new ArrayList<List<Integer>>();
+        new QueryResultBuilder<Integer>(asList(1, 2, 3, 4, 5)).to(Integer.class).handleChunks(2, new Handler<List<Integer>>() {
+            public void handle(List<Integer> chunk) {
+                chunks.add(chunk);
+            }
+        });
+        assertEquals(asList(asList(1, 2), asList(3, 4), asList(5)), chunks);
+    }
+
     private Map<String, Object> michaelsName() {
         return MapUtil.map("name", michael.getName());
     }
@@ -154,4 +229,31 @@ public class QueryEngineTest {
 
         assertEquals(michael.getPersonality(),result);
     }
+
+    @Test
+    public void testEntityConversionIsCreatedOncePerType() throws Exception {
+        final String queryString = "start person=(%michael,%david,%emil) return person";
+        final Map<String, Object> params = MapUtil.map("michael", idFor(michael), "david", idFor(testTeam.david), "emil", idFor(testTeam.emil));
+        final int[] created = new int[1];
+        final EntityResultConverter<Map<String, Object>, Person> converter = new EntityResultConverter<Map<String, Object>, Person>(graphDatabaseContext) {
+            @Override
+            protected Conversion createConversion(Class<?> sourceType, Class targetType) {
+                created[0]++;
+                return super.createConversion(sourceType, targetType);
+            }
+        };
+        final Collection<Person> result = IteratorUtil.asCollection(queryEngine.query(queryString, params).to(Person.class, converter));
+
+        assertEquals(asList(michael, testTeam.david, testTeam.emil), result);
+        assertEquals(1, created[0]);
+    }
+
+    @Test
+    public void testQueryExecutorConvertsRowsToEntities() throws Exception {
+        final String queryString = "start person=(%michael,%david,%emil) return person";
+        final Map<String, Object> params = MapUtil.map("michael", idFor(michael), "david", idFor(testTeam.david), "emil", idFor(testTeam.emil));
+        final Collection<Person> result = IteratorUtil.asCollection(new CypherQueryExecutor(graphDatabaseContext).query(queryString, Person.class, params));
+
+        assertEquals(asList(michael, testTeam.david, testTeam.emil), result);
+    }
 }
@@ -21,8 +21,10 @@ import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.helpers.collection.IteratorUtil;
 import org.springframework.data.neo4j.core.GraphDatabase;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.neo4j.helpers.collection.MapUtil.map;
@@ -93,4 +95,25 @@ public class Neo4jTemplateTest extends NeoApiTest {
             }
         });
     }
+
+    @Test
+    public void testCreateRelationshipsInBatches() {
+        final Neo4jOperations template = new Neo4jTemplate(graph, transactionManager);
+        final Node[] nodes = template.exec(new GraphCallback<Node[]>() {
+            public Node[] doWithGraph(GraphDatabase graph) throws Exception {
+                final Node start = graph.createNode(null);
+                start.createRelationshipTo(graph.createNode(null), HAS);
+                return new Node[]{start, start.getSingleRelationship(HAS, Direction.OUTGOING).getEndNode(), graph.createNode(null), graph.createNode(null)};
+            }
+        });
+        final Node start = nodes[0];
+        final long created = template.createRelationships(asList(
+                RelationshipSpec.relationship(start, nodes[1], HAS),
+                RelationshipSpec.relationship(start, nodes[2], HAS),
+                new RelationshipSpec(start, nodes[3], HAS, map("since", 2011)),
+                RelationshipSpec.relationship(start, nodes[2], HAS)), 2);
+        assertEquals(2, created);
+        assertEquals(3, IteratorUtil.count(start.getRelationships(HAS, Direction.OUTGOING)));
+        assertEquals(2011, nodes[3].getSingleRelationship(HAS, Direction.INCOMING).getProperty("since"));
+    }
 }